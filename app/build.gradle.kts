@@ -1,6 +1,7 @@
 plugins {
     alias(libs.plugins.android.application)
     alias(libs.plugins.kotlin.android)
+    alias(libs.plugins.androidx.baselineprofile)
 }
 
 android {
@@ -45,6 +46,10 @@ dependencies {
 
     implementation(project(":pinentryview-java"))
 
+    // Installs the baseline profiles of the app and the library on sideloaded builds
+    implementation(libs.androidx.profileinstaller)
+    baselineProfile(project(":pinentryview-macrobenchmark"))
+
     // Unit tests
     testImplementation(libs.junit)
     androidTestImplementation(libs.androidx.junit)
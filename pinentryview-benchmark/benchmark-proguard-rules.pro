@@ -0,0 +1,5 @@
+# Keep the benchmark classes and the library code they measure intact
+-dontobfuscate
+
+-keep class com.rorpheeyah.java.pinentryview.** { *; }
+-keep class androidx.benchmark.** { *; }
@@ -0,0 +1,114 @@
+package com.rorpheeyah.java.pinentryview.benchmark;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.rorpheeyah.java.pinentryview.PinEntryView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared setup for the PinEntryView benchmarks.
+ */
+final class PinBenchmarkSupport {
+
+    static final int[] ITEM_COUNTS = {4, 6, 8};
+    static final int[] VIEW_TYPES = {
+            PinEntryView.VIEW_TYPE_RECTANGLE,
+            PinEntryView.VIEW_TYPE_LINE,
+            PinEntryView.VIEW_TYPE_CIRCLE
+    };
+
+    private PinBenchmarkSupport() {
+    }
+
+    /**
+     * Builds the item count x view type parameter matrix.
+     *
+     * @return One {itemCount, viewType, viewTypeName} row per combination
+     */
+    static List<Object[]> itemCountAndViewTypes() {
+        List<Object[]> params = new ArrayList<>();
+        for (int count : ITEM_COUNTS) {
+            for (int viewType : VIEW_TYPES) {
+                params.add(new Object[]{count, viewType, viewTypeName(viewType)});
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Gets a context themed the way a host activity would be.
+     *
+     * @return The themed context
+     */
+    static Context themedContext() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        return new ContextThemeWrapper(context, androidx.appcompat.R.style.Theme_AppCompat_Light);
+    }
+
+    /**
+     * Creates a PinEntryView and lays it out at its preferred size.
+     *
+     * @param itemCount The number of PIN items
+     * @param viewType The view type
+     * @return The laid out view
+     */
+    static PinEntryView createLaidOutView(int itemCount, int viewType) {
+        PinEntryView view = new PinEntryView(themedContext());
+        view.setItemCount(itemCount);
+        view.setViewType(viewType);
+        layout(view);
+        return view;
+    }
+
+    /**
+     * Measures and lays out the view at its preferred size.
+     *
+     * @param view The view to lay out
+     */
+    static void layout(View view) {
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        view.measure(spec, spec);
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    /**
+     * Fills the view with a complete PIN.
+     *
+     * @param view The view to fill
+     */
+    static void fill(PinEntryView view) {
+        StringBuilder pin = new StringBuilder();
+        for (int i = 0; i < view.getItemCount(); i++) {
+            pin.append((char) ('0' + i % 10));
+        }
+        view.setText(pin);
+    }
+
+    /**
+     * Runs the block on the main thread and waits for it, as views require.
+     *
+     * @param block The block to run
+     */
+    static void runOnMainSync(Runnable block) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(block);
+    }
+
+    private static String viewTypeName(int viewType) {
+        switch (viewType) {
+            case PinEntryView.VIEW_TYPE_RECTANGLE:
+                return "rectangle";
+            case PinEntryView.VIEW_TYPE_LINE:
+                return "line";
+            case PinEntryView.VIEW_TYPE_CIRCLE:
+                return "circle";
+            default:
+                return "none";
+        }
+    }
+}
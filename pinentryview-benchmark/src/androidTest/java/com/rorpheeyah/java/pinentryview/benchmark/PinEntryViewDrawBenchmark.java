@@ -0,0 +1,94 @@
+package com.rorpheeyah.java.pinentryview.benchmark;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.text.TextPaint;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import com.rorpheeyah.java.pinentryview.PinEntryView;
+import com.rorpheeyah.java.pinentryview.PinViewDrawer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.List;
+
+/**
+ * Measures drawing a PinEntryView into a recording canvas.
+ */
+@RunWith(Parameterized.class)
+public class PinEntryViewDrawBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameter(0)
+    public int itemCount;
+
+    @Parameterized.Parameter(1)
+    public int viewType;
+
+    @Parameterized.Parameter(2)
+    public String viewTypeName;
+
+    @Parameterized.Parameters(name = "count={0},type={2}")
+    public static List<Object[]> parameters() {
+        return PinBenchmarkSupport.itemCountAndViewTypes();
+    }
+
+    @Test
+    public void drawPinViewEmpty() {
+        PinBenchmarkSupport.runOnMainSync(() -> measureDrawPinView(false));
+    }
+
+    @Test
+    public void drawPinViewFilled() {
+        PinBenchmarkSupport.runOnMainSync(() -> measureDrawPinView(true));
+    }
+
+    @Test
+    public void viewDrawFilled() {
+        PinBenchmarkSupport.runOnMainSync(() -> {
+            PinEntryView view = PinBenchmarkSupport.createLaidOutView(itemCount, viewType);
+            PinBenchmarkSupport.fill(view);
+            Picture picture = new Picture();
+
+            BenchmarkState state = benchmarkRule.getState();
+            while (state.keepRunning()) {
+                Canvas canvas = picture.beginRecording(view.getWidth(), view.getHeight());
+                view.draw(canvas);
+                picture.endRecording();
+            }
+        });
+    }
+
+    /**
+     * Drives PinViewDrawer directly, without the View background and text layout work.
+     */
+    private void measureDrawPinView(boolean filled) {
+        PinEntryView view = PinBenchmarkSupport.createLaidOutView(itemCount, viewType);
+        if (filled) {
+            PinBenchmarkSupport.fill(view);
+        }
+
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(view.getLineWidth());
+        TextPaint animatorTextPaint = new TextPaint(view.getPaint());
+        PinViewDrawer drawer = new PinViewDrawer(view, paint, animatorTextPaint);
+        Picture picture = new Picture();
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Canvas canvas = picture.beginRecording(view.getWidth(), view.getHeight());
+            drawer.updatePaints();
+            drawer.drawPinView(canvas);
+            picture.endRecording();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.rorpheeyah.java.pinentryview.benchmark;
+
+import android.content.Context;
+import android.content.res.XmlResourceParser;
+import android.util.AttributeSet;
+import android.util.Xml;
+import android.view.LayoutInflater;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.rorpheeyah.java.pinentryview.PinEntryView;
+import com.rorpheeyah.java.pinentryview.PinViewAttributeParser;
+import com.rorpheeyah.java.pinentryview.benchmark.test.R;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xmlpull.v1.XmlPullParser;
+
+/**
+ * Measures creating PinEntryView instances, from code and from XML, and
+ * PinViewAttributeParser on its own.
+ * <p>
+ * The XML benchmarks come in two variants: one hitting the resolved attribute cache as
+ * repeated inflation does, and one clearing it before every iteration to track the
+ * {@code obtainStyledAttributes} path of a first inflation.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PinEntryViewInflationBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void constructFromCode() {
+        PinBenchmarkSupport.runOnMainSync(() -> {
+            Context context = PinBenchmarkSupport.themedContext();
+
+            BenchmarkState state = benchmarkRule.getState();
+            while (state.keepRunning()) {
+                new PinEntryView(context);
+            }
+        });
+    }
+
+    @Test
+    public void inflateFromXml() {
+        inflateFromXml(false);
+    }
+
+    @Test
+    public void inflateFromXmlUncached() {
+        inflateFromXml(true);
+    }
+
+    @Test
+    public void parseAttributes() throws Exception {
+        parseAttributes(false);
+    }
+
+    @Test
+    public void parseAttributesUncached() throws Exception {
+        parseAttributes(true);
+    }
+
+    private void inflateFromXml(boolean uncached) {
+        PinBenchmarkSupport.runOnMainSync(() -> {
+            LayoutInflater inflater = LayoutInflater.from(PinBenchmarkSupport.themedContext());
+
+            BenchmarkState state = benchmarkRule.getState();
+            while (state.keepRunning()) {
+                if (uncached) {
+                    state.pauseTiming();
+                    PinViewAttributeParser.clearCache();
+                    state.resumeTiming();
+                }
+                inflater.inflate(R.layout.benchmark_pin_entry_view, null, false);
+            }
+        });
+    }
+
+    private void parseAttributes(boolean uncached) throws Exception {
+        Context context = PinBenchmarkSupport.themedContext();
+        XmlResourceParser parser = context.getResources().getLayout(R.layout.benchmark_pin_entry_view);
+        try {
+            int type;
+            do {
+                type = parser.next();
+            } while (type != XmlPullParser.START_TAG && type != XmlPullParser.END_DOCUMENT);
+            AttributeSet attrs = Xml.asAttributeSet(parser);
+
+            PinBenchmarkSupport.runOnMainSync(() -> {
+                PinEntryView view = new PinEntryView(context);
+                PinViewAttributeParser attributeParser = new PinViewAttributeParser(context);
+
+                BenchmarkState state = benchmarkRule.getState();
+                while (state.keepRunning()) {
+                    if (uncached) {
+                        state.pauseTiming();
+                        PinViewAttributeParser.clearCache();
+                        state.resumeTiming();
+                    }
+                    attributeParser.parseAttributes(view, attrs, 0);
+                }
+            });
+        } finally {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.rorpheeyah.java.pinentryview.benchmark;
+
+import android.text.Editable;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import com.rorpheeyah.java.pinentryview.PinEntryView;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.List;
+
+/**
+ * Measures the per-keystroke cost of typing into a PinEntryView, which runs
+ * onTextChanged and its item invalidation.
+ */
+@RunWith(Parameterized.class)
+public class PinEntryViewInputBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameter(0)
+    public int itemCount;
+
+    @Parameterized.Parameter(1)
+    public int viewType;
+
+    @Parameterized.Parameter(2)
+    public String viewTypeName;
+
+    @Parameterized.Parameters(name = "count={0},type={2}")
+    public static List<Object[]> parameters() {
+        return PinBenchmarkSupport.itemCountAndViewTypes();
+    }
+
+    @Test
+    public void keystroke() {
+        measureKeystroke(true);
+    }
+
+    @Test
+    public void keystrokeNoAnimation() {
+        measureKeystroke(false);
+    }
+
+    @Test
+    public void typeFullPinAndClear() {
+        PinBenchmarkSupport.runOnMainSync(() -> {
+            PinEntryView view = PinBenchmarkSupport.createLaidOutView(itemCount, viewType);
+            view.setAnimationEnabled(false);
+            Editable text = view.getText();
+
+            BenchmarkState state = benchmarkRule.getState();
+            while (state.keepRunning()) {
+                for (int i = 0; i < itemCount; i++) {
+                    text.append((char) ('0' + i % 10));
+                }
+                text.clear();
+            }
+        });
+    }
+
+    private void measureKeystroke(boolean animationEnabled) {
+        PinBenchmarkSupport.runOnMainSync(() -> {
+            PinEntryView view = PinBenchmarkSupport.createLaidOutView(itemCount, viewType);
+            view.setAnimationEnabled(animationEnabled);
+            Editable text = view.getText();
+
+            BenchmarkState state = benchmarkRule.getState();
+            while (state.keepRunning()) {
+                if (text.length() == itemCount) {
+                    state.pauseTiming();
+                    text.clear();
+                    state.resumeTiming();
+                }
+                text.append('7');
+            }
+        });
+    }
+}
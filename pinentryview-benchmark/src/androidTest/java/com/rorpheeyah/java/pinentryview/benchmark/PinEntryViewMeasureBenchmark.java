@@ -0,0 +1,63 @@
+package com.rorpheeyah.java.pinentryview.benchmark;
+
+import android.view.View;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import com.rorpheeyah.java.pinentryview.PinEntryView;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.List;
+
+/**
+ * Measures PinEntryView.onMeasure.
+ */
+@RunWith(Parameterized.class)
+public class PinEntryViewMeasureBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameter(0)
+    public int itemCount;
+
+    @Parameterized.Parameter(1)
+    public int viewType;
+
+    @Parameterized.Parameter(2)
+    public String viewTypeName;
+
+    @Parameterized.Parameters(name = "count={0},type={2}")
+    public static List<Object[]> parameters() {
+        return PinBenchmarkSupport.itemCountAndViewTypes();
+    }
+
+    @Test
+    public void measureWrapContent() {
+        measure(View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+    }
+
+    @Test
+    public void measureExactly() {
+        measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY));
+    }
+
+    private void measure(int widthSpec) {
+        PinBenchmarkSupport.runOnMainSync(() -> {
+            PinEntryView view = PinBenchmarkSupport.createLaidOutView(itemCount, viewType);
+            int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+
+            BenchmarkState state = benchmarkRule.getState();
+            while (state.keepRunning()) {
+                // Defeat the measure cache so that onMeasure runs every iteration
+                view.forceLayout();
+                view.measure(widthSpec, heightSpec);
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.rorpheeyah.java.pinentryview.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import com.rorpheeyah.java.pinentryview.PinEntryView;
+import com.rorpheeyah.java.pinentryview.PinViewState;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.List;
+
+/**
+ * Measures state switches through PinEntryView.setState, which routes to
+ * PinViewStateManager.
+ */
+@RunWith(Parameterized.class)
+public class PinEntryViewStateBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameter(0)
+    public int itemCount;
+
+    @Parameterized.Parameter(1)
+    public int viewType;
+
+    @Parameterized.Parameter(2)
+    public String viewTypeName;
+
+    @Parameterized.Parameters(name = "count={0},type={2}")
+    public static List<Object[]> parameters() {
+        return PinBenchmarkSupport.itemCountAndViewTypes();
+    }
+
+    @Test
+    public void errorAndBack() {
+        measureRoundTrip(PinViewState.Type.ERROR);
+    }
+
+    @Test
+    public void successAndBack() {
+        measureRoundTrip(PinViewState.Type.SUCCESS);
+    }
+
+    private void measureRoundTrip(PinViewState.Type target) {
+        PinBenchmarkSupport.runOnMainSync(() -> {
+            PinEntryView view = PinBenchmarkSupport.createLaidOutView(itemCount, viewType);
+            // Measure the state switch itself, not the shake/scale animations it may start
+            view.setErrorShakeEnabled(false);
+            view.setSuccessAnimationEnabled(false);
+            PinBenchmarkSupport.fill(view);
+
+            BenchmarkState state = benchmarkRule.getState();
+            while (state.keepRunning()) {
+                view.setState(target);
+                view.setState(PinViewState.Type.NORMAL);
+            }
+        });
+    }
+}
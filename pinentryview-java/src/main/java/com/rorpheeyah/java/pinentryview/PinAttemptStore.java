@@ -0,0 +1,80 @@
+package com.rorpheeyah.java.pinentryview;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Persists the failed attempt counters of a PinEntryView, so a lockout survives the view,
+ * the activity and the process being recreated.
+ * <p>
+ * Set with {@link PinEntryView#setAttemptStore(PinAttemptStore)}. {@link #load()} is called
+ * once when the store is set and {@link #save(Snapshot)} after every change; both run on
+ * the main thread, so implementations should be cheap, e.g. an {@code apply()} to
+ * SharedPreferences.
+ */
+public interface PinAttemptStore {
+
+    /**
+     * Loads the persisted counters.
+     *
+     * @return The counters, or null if nothing was saved yet
+     */
+    @Nullable
+    Snapshot load();
+
+    /**
+     * Saves the current counters.
+     *
+     * @param snapshot The counters to persist
+     */
+    void save(@NonNull Snapshot snapshot);
+
+    /**
+     * Immutable attempt counters.
+     */
+    final class Snapshot {
+        private final int mFailedAttempts;
+        private final int mLockoutCount;
+        private final long mLockedUntilMillis;
+        private final long mLockoutMillis;
+
+        /**
+         * @param failedAttempts Failed attempts since the last success or lockout
+         * @param lockoutCount Lockouts since the last success, drives the backoff
+         * @param lockedUntilMillis Wall clock time the current lockout ends, 0 if not locked
+         * @param lockoutMillis Full duration of the current lockout, 0 if not locked
+         */
+        public Snapshot(int failedAttempts, int lockoutCount, long lockedUntilMillis,
+                long lockoutMillis) {
+            mFailedAttempts = failedAttempts;
+            mLockoutCount = lockoutCount;
+            mLockedUntilMillis = lockedUntilMillis;
+            mLockoutMillis = lockoutMillis;
+        }
+
+        public int getFailedAttempts() {
+            return mFailedAttempts;
+        }
+
+        public int getLockoutCount() {
+            return mLockoutCount;
+        }
+
+        public long getLockedUntilMillis() {
+            return mLockedUntilMillis;
+        }
+
+        public long getLockoutMillis() {
+            return mLockoutMillis;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Snapshot{failedAttempts=" + mFailedAttempts
+                    + ", lockoutCount=" + mLockoutCount
+                    + ", lockedUntilMillis=" + mLockedUntilMillis
+                    + ", lockoutMillis=" + mLockoutMillis + '}';
+        }
+    }
+}
@@ -19,7 +19,6 @@ import android.text.TextWatcher;
 import android.text.method.MovementMethod;
 import android.text.method.TransformationMethod;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.ActionMode;
 import android.view.KeyEvent;
 import android.view.Menu;
@@ -28,7 +27,6 @@ import android.view.View;
 import android.view.animation.DecelerateInterpolator;
 import android.view.inputmethod.EditorInfo;
 import android.view.inputmethod.InputMethodManager;
-import android.widget.TextView;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.DrawableRes;
@@ -40,7 +38,9 @@ import androidx.core.content.res.ResourcesCompat;
 
 import org.jetbrains.annotations.Contract;
 
-import java.lang.reflect.Field;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 /**
  * A highly customizable PIN entry view component for Android applications.
@@ -57,9 +57,15 @@ public class PinEntryView extends AppCompatEditText {
     //=====================================================================
     private static final String TAG = PinEntryView.class.getSimpleName();
     private static final boolean DBG = false;
-    private static final int BLINK = 500;
     private static final InputFilter[] NO_FILTERS = new InputFilter[0];
 
+    // Character add animation, and the delay between items in the staggered bulk reveal
+    private static final int ADD_ANIMATION_DURATION = 150;
+    private static final int REVEAL_STAGGER_DELAY = 50;
+
+    // Delay before the smart keyboard behavior hides the keyboard on completion
+    private static final int HIDE_KEYBOARD_DELAY = 200;
+
     // Gravity constants
     public static final int GRAVITY_START = 0;
     public static final int GRAVITY_CENTER = 1;
@@ -105,6 +111,56 @@ public class PinEntryView extends AppCompatEditText {
         void onPinEntered(String pin);
     }
 
+    /**
+     * Interface for receiving the completed PIN without a String copy.
+     */
+    public interface OnSecurePinEnteredListener {
+        /**
+         * Called when the PIN has been fully entered.
+         * <p>
+         * The buffer is owned by the view and backed by an accessible array. It is valid
+         * until the text changes or {@link #wipe()} is called, after which its contents are
+         * zeroed, so copy out anything that has to outlive the callback.
+         *
+         * @param pin The entered PIN, from position 0 to the limit
+         */
+        void onPinEntered(@NonNull CharBuffer pin);
+    }
+
+    /**
+     * Interface for receiving the result of a {@link PinVerifier}.
+     */
+    public interface OnPinVerifiedListener {
+        /**
+         * Called on the main thread after the view switched to the success or error state.
+         *
+         * @param verified True if the PIN was verified, false otherwise
+         */
+        void onPinVerified(boolean verified);
+
+        /**
+         * Called on the main thread when the verifier threw instead of returning a result.
+         * The state is left unchanged and no attempt is recorded; the PIN stays in the field.
+         *
+         * @param error The exception thrown by the verifier
+         */
+        default void onPinVerificationFailed(@NonNull RuntimeException error) {
+        }
+    }
+
+    /**
+     * Interface for receiving lockout changes, see {@link #setAttemptLimit(int, long, long)}.
+     */
+    public interface OnLockoutListener {
+        /**
+         * Called when a lockout starts or ends.
+         *
+         * @param locked True if input is now locked, false if the lockout ended
+         * @param remainingMillis Time until the lockout ends, 0 when it ended
+         */
+        void onLockoutChanged(boolean locked, long remainingMillis);
+    }
+
     //=====================================================================
     // FIELDS
     //=====================================================================
@@ -120,6 +176,8 @@ public class PinEntryView extends AppCompatEditText {
 
     private final TextPaint mAnimatorTextPaint = new TextPaint();
     private final PinViewDrawer mDrawer;
+    private final Rect mDirtyRect = new Rect();
+    private final Rect mDirtyItemRect = new Rect();
 
     // State management - replaces individual error/success properties
     private final PinViewStateManager mStateManager;
@@ -141,7 +199,12 @@ public class PinEntryView extends AppCompatEditText {
 
     // Password and text properties
     private boolean mPasswordHidden;
-    private String mTransformed;
+    // Transformed text, updated in place on every change (created lazily, as the first
+    // change arrives from inside the super constructor)
+    private PinViewTextBuffer mTransformed;
+
+    // Editor whose cursor and handles were replaced via reflection (pre-Q)
+    private Object mHandlesEditor;
 
     // Cursor properties
     private PinViewBlink mBlink;
@@ -151,8 +214,55 @@ public class PinEntryView extends AppCompatEditText {
     private int mCursorWidth;
     private int mCursorColor;
 
-    // Listener for PIN entered events
+    // Listeners for PIN entered events
     private OnPinEnteredListener mPinEnteredListener;
+    private OnSecurePinEnteredListener mSecurePinEnteredListener;
+
+    // Completed PIN handed to mSecurePinEnteredListener, zeroed on the next change
+    private PinViewTextBuffer mSecurePin;
+
+    // Set while wipe() overwrites the text, to keep the zeroes from counting as input
+    private boolean mWiping;
+
+    // Off-main-thread verification of completed PINs, null without a verifier
+    private PinViewVerification mVerification;
+    private OnPinVerifiedListener mPinVerifiedListener;
+    private OnLockoutListener mLockoutListener;
+
+    // Rejects every edit while locked, except the ones made by wipe()
+    private final InputFilter mLockFilter = (source, start, end, dest, dstart, dend) ->
+            !mWiping && mStateManager != null && mStateManager.isLocked()
+                    ? dest.subSequence(dstart, dend) : null;
+
+    // Latency and rendering metrics, null while disabled
+    private PinViewMetrics mMetrics;
+    private PinViewMetrics.Listener mMetricsListener;
+
+    // Nesting depth of beginBatch/endBatch and the work deferred while batching
+    private int mBatchDepth;
+    private boolean mBatchLayoutRequested;
+    private boolean mBatchInvalidated;
+
+    // Whether the main-thread part of the setup has run, see onFirstAttach()
+    private boolean mMainThreadSetupDone;
+
+    // IME batch edit in progress: animations, invalidation and completion are coalesced
+    // until it ends, so codes committed one character at a time behave like a paste
+    private boolean mInImeBatchEdit;
+    private int mPendingAddStart;
+    private int mPendingAddEnd;
+    private boolean mCompletionPending;
+
+    // Staggered reveal of characters inserted in bulk, driven by a single animator
+    private boolean mBulkRevealEnabled;
+    private android.animation.ValueAnimator mRevealAnimator;
+    private int mRevealStart;
+    private int mRevealCount;
+    private float mRevealFraction = 1f;
+
+    // Smart keyboard behavior: one watcher, and one pending hide however many changes arrive
+    private TextWatcher mSmartKeyboardWatcher;
+    private final Runnable mHideKeyboardRunnable = this::hideKeyboard;
 
     //=====================================================================
     // CONSTRUCTORS
@@ -220,13 +330,14 @@ public class PinEntryView extends AppCompatEditText {
         // Setup for PIN entry
         setMaxLength(mPinItemCount);
         mPaint.setStrokeWidth(mLineWidth);
-        setupAnimator();
 
         setTransformationMethod(null);
         disableSelectionMenu();
         setupStyle();
 
-        Log.i(TAG, "🔐 PinEntryView initialized with " + mPinItemCount + " items");
+        if (PinViewLog.DBG) {
+            PinViewLog.i(TAG, "🔐 PinEntryView initialized with " + mPinItemCount + " items");
+        }
     }
 
     //=====================================================================
@@ -253,6 +364,9 @@ public class PinEntryView extends AppCompatEditText {
 
     /**
      * Sets up the view's style and behavior programmatically.
+     * <p>
+     * Everything here is safe off the main thread, so the view can be inflated with
+     * AsyncLayoutInflater; main-thread setup is deferred to {@link #onFirstAttach()}.
      */
     private void setupStyle() {
         // Basic appearance settings
@@ -268,72 +382,66 @@ public class PinEntryView extends AppCompatEditText {
         // Enable keyboard display
         setShowSoftInputOnFocus(true);
 
-        // Create invisible drawable programmatically
-        Drawable invisibleDrawable = PinViewDrawableFactory.createInvisibleDrawable();
+        // Shared, stateless invisible drawable
+        Drawable invisibleDrawable = PinViewDrawableFactory.getInvisibleDrawable();
 
-        // Apply cursor and handles based on API level
+        // Apply cursor and handles based on API level, older versions use reflection on attach
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
             setTextCursorDrawable(invisibleDrawable);
             setTextSelectHandle(invisibleDrawable);
             setTextSelectHandleLeft(invisibleDrawable);
             setTextSelectHandleRight(invisibleDrawable);
-        } else {
-            setInvisibleTextHandlesViaReflection(invisibleDrawable);
         }
 
-        // Always set the click listener - showKeyboard() will check autoFocus setting
-        setOnClickListener(v -> showKeyboard());
-
         // Setup keyboard actions
         setupKeyboardActions();
 
-        Log.d(TAG, "📱 View style setup completed");
+        PinViewLog.d(TAG, "📱 View style setup completed");
+    }
+
+    /**
+     * Runs the setup that must happen on the main thread, once, when the view is first
+     * attached: creating the input animator and installing the click listener.
+     */
+    private void onFirstAttach() {
+        mMainThreadSetupDone = true;
+        setupAnimator();
+
+        // Always set the click listener - showKeyboard() will check autoFocus setting.
+        // A listener set by the app before the first attach takes precedence, as it
+        // would have replaced this one when it was installed in the constructor.
+        if (!hasOnClickListeners()) {
+            setOnClickListener(v -> showKeyboard());
+        }
     }
 
     /**
-     * Uses reflection to set invisible text cursor and handles
+     * Uses reflection to set invisible text cursor and handles.
+     * Field lookups are cached per process in {@link PinViewEditorReflection}, and an
+     * editor that already carries the invisible drawables is left alone.
      */
-    @SuppressLint({"PrivateApi", "DiscouragedPrivateApi"})
     private void setInvisibleTextHandlesViaReflection(Drawable invisibleDrawable) {
+        boolean traced = PinViewTrace.begin(PinViewTrace.REFLECTION);
         try {
-            // Get editor field
-            Field editorField = TextView.class.getDeclaredField("mEditor");
-            editorField.setAccessible(true);
-            Object editor = editorField.get(this);
+            if (PinViewEditorReflection.isUnsupported()) {
+                return;
+            }
 
-            if (editor == null) {
+            Object editor = PinViewEditorReflection.getEditor(this);
+            if (editor == null && !PinViewEditorReflection.isUnsupported()) {
                 // Force editor creation if needed
                 setTextIsSelectable(true);
                 setTextIsSelectable(false);
-                editor = editorField.get(this);
+                editor = PinViewEditorReflection.getEditor(this);
             }
 
-            if (editor != null) {
-                // Set cursor drawable
-                Field cursorField = editor.getClass().getDeclaredField("mCursorDrawable");
-                cursorField.setAccessible(true);
-                Drawable[] cursorDrawables = new Drawable[2];
-                cursorDrawables[0] = invisibleDrawable;
-                cursorDrawables[1] = invisibleDrawable;
-                cursorField.set(editor, cursorDrawables);
-
-                // Set selection handles
-                Field handleField = editor.getClass().getDeclaredField("mSelectHandleCenter");
-                handleField.setAccessible(true);
-                handleField.set(editor, invisibleDrawable);
-
-                Field leftHandleField = editor.getClass().getDeclaredField("mSelectHandleLeft");
-                leftHandleField.setAccessible(true);
-                leftHandleField.set(editor, invisibleDrawable);
-
-                Field rightHandleField = editor.getClass().getDeclaredField("mSelectHandleRight");
-                rightHandleField.setAccessible(true);
-                rightHandleField.set(editor, invisibleDrawable);
-
-                Log.d(TAG, "📱 Set invisible handles via reflection successful");
+            if (editor != null && editor != mHandlesEditor
+                    && PinViewEditorReflection.setCursorAndHandles(editor, invisibleDrawable)) {
+                mHandlesEditor = editor;
+                PinViewLog.d(TAG, "📱 Set invisible handles via reflection successful");
             }
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Failed to set handles: " + e.getMessage());
+        } finally {
+            PinViewTrace.end(traced);
         }
     }
 
@@ -343,7 +451,7 @@ public class PinEntryView extends AppCompatEditText {
     private void setupAnimator() {
         try {
             mDefaultAddAnimator = android.animation.ValueAnimator.ofFloat(0.5f, 1f);
-            mDefaultAddAnimator.setDuration(150);
+            mDefaultAddAnimator.setDuration(ADD_ANIMATION_DURATION);
             mDefaultAddAnimator.setInterpolator(new DecelerateInterpolator());
             mDefaultAddAnimator.addUpdateListener(animation -> {
                 try {
@@ -351,14 +459,17 @@ public class PinEntryView extends AppCompatEditText {
                     int alpha = (int) (255 * scale);
                     mAnimatorTextPaint.setTextSize(getTextSize() * scale);
                     mAnimatorTextPaint.setAlpha(alpha);
-                    postInvalidate();
+                    // Only the last entered item is drawn with the animator paint
+                    invalidateItem(getLength() - 1);
                 } catch (Exception e) {
-                    Log.e(TAG, "⚠️ Error in animation update", e);
+                    PinViewLog.e(TAG, "⚠️ Error in animation update", e);
                 }
             });
-            Log.d(TAG, "🎬 Animation setup completed");
+            PinViewTrace.traceAsync(mDefaultAddAnimator, PinViewTrace.ADD_ANIMATION,
+                    System.identityHashCode(this));
+            PinViewLog.d(TAG, "🎬 Animation setup completed");
         } catch (Exception e) {
-            Log.e(TAG, "🚫 Error setting up animator", e);
+            PinViewLog.e(TAG, "🚫 Error setting up animator", e);
             mAnimationEnabled = false;
         }
     }
@@ -371,23 +482,46 @@ public class PinEntryView extends AppCompatEditText {
             if (mViewType == VIEW_TYPE_LINE) {
                 float halfOfLineWidth = ((float) mLineWidth) / 2;
                 if (mPinItemRadius > halfOfLineWidth) {
-                    Log.w(TAG, "⚠️ Adjusting itemRadius to match lineWidth constraints");
+                    PinViewLog.w(TAG, "⚠️ Adjusting itemRadius to match lineWidth constraints");
                     mPinItemRadius = (int) halfOfLineWidth;
                 }
             } else if (mViewType == VIEW_TYPE_RECTANGLE) {
                 float halfOfItemWidth = ((float) mPinItemWidth) / 2;
                 if (mPinItemRadius > halfOfItemWidth) {
-                    Log.w(TAG, "⚠️ Adjusting itemRadius to match itemWidth constraints");
+                    PinViewLog.w(TAG, "⚠️ Adjusting itemRadius to match itemWidth constraints");
                     mPinItemRadius = (int) halfOfItemWidth;
                 }
             }
         } catch (Exception e) {
-            Log.e(TAG, "🚫 Error checking item radius", e);
+            PinViewLog.e(TAG, "🚫 Error checking item radius", e);
             // Set to safe defaults
             mPinItemRadius = Math.min(mPinItemRadius, mLineWidth / 2);
         }
     }
 
+    /**
+     * Sets the input filters. The filter that rejects input during a lockout is kept,
+     * appended to {@code filters} if missing, so apps replacing the filters cannot drop it.
+     *
+     * @param filters The filters to set
+     */
+    @Override
+    public void setFilters(InputFilter[] filters) {
+        // Null while TextView's constructor sets its default filters
+        if (mLockFilter != null) {
+            for (InputFilter filter : filters) {
+                if (filter == mLockFilter) {
+                    super.setFilters(filters);
+                    return;
+                }
+            }
+            InputFilter[] withLock = Arrays.copyOf(filters, filters.length + 1);
+            withLock[filters.length] = mLockFilter;
+            filters = withLock;
+        }
+        super.setFilters(filters);
+    }
+
     /**
      * Sets the maximum length of input allowed.
      *
@@ -399,7 +533,9 @@ public class PinEntryView extends AppCompatEditText {
         } else {
             setFilters(NO_FILTERS);
         }
-        Log.d(TAG, "📏 Max length set to: " + maxLength);
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "📏 Max length set to: " + maxLength);
+        }
     }
 
     /**
@@ -420,7 +556,7 @@ public class PinEntryView extends AppCompatEditText {
                     }
                 });
             } catch (Exception e) {
-                Log.e(TAG, "⚠️ Error setting custom insertion action mode", e);
+                PinViewLog.e(TAG, "⚠️ Error setting custom insertion action mode", e);
             }
         }
     }
@@ -488,89 +624,253 @@ public class PinEntryView extends AppCompatEditText {
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
-        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
-        int heightSize = MeasureSpec.getSize(heightMeasureSpec);
+        boolean traced = PinViewTrace.begin(PinViewTrace.ON_MEASURE);
+        try {
+            int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+            int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+            int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+            int heightSize = MeasureSpec.getSize(heightMeasureSpec);
 
-        int width;
-        int height;
+            int width;
+            int height;
 
-        int boxHeight = mPinItemHeight;
+            int boxHeight = mPinItemHeight;
 
-        if (widthMode == MeasureSpec.EXACTLY) {
-            // Parent has told us how big to be. So be it.
-            width = widthSize;
-        } else {
-            int boxesWidth = (mPinItemCount - 1) * mPinItemSpacing + mPinItemCount * mPinItemWidth;
-            width = boxesWidth + getPaddingEnd() + getPaddingStart();
-            if (mPinItemSpacing == 0) {
-                width -= (mPinItemCount - 1) * mLineWidth;
+            if (widthMode == MeasureSpec.EXACTLY) {
+                // Parent has told us how big to be. So be it.
+                width = widthSize;
+            } else {
+                int boxesWidth = (mPinItemCount - 1) * mPinItemSpacing + mPinItemCount * mPinItemWidth;
+                width = boxesWidth + getPaddingEnd() + getPaddingStart();
+                if (mPinItemSpacing == 0) {
+                    width -= (mPinItemCount - 1) * mLineWidth;
+                }
             }
-        }
 
-        if (heightMode == MeasureSpec.EXACTLY) {
-            // Parent has told us how big to be. So be it.
-            height = heightSize;
-        } else {
-            height = boxHeight + getPaddingTop() + getPaddingBottom();
+            if (heightMode == MeasureSpec.EXACTLY) {
+                // Parent has told us how big to be. So be it.
+                height = heightSize;
+            } else {
+                height = boxHeight + getPaddingTop() + getPaddingBottom();
+            }
+
+            setMeasuredDimension(width, height);
+            mDrawer.invalidateLayout();
+            if (PinViewLog.DBG) {
+                PinViewLog.v(TAG, "📐 Measured size: " + width + "x" + height);
+            }
+        } finally {
+            PinViewTrace.end(traced);
         }
+    }
 
-        setMeasuredDimension(width, height);
-        Log.v(TAG, "📐 Measured size: " + width + "x" + height);
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mDrawer.invalidateLayout();
     }
 
     @Override
     protected void onTextChanged(CharSequence text, int start, int lengthBefore, int lengthAfter) {
-        super.onTextChanged(text, start, lengthBefore, lengthAfter);
+        boolean traced = PinViewTrace.begin(PinViewTrace.ON_TEXT_CHANGED);
+        try {
+            super.onTextChanged(text, start, lengthBefore, lengthAfter);
 
-        // Clear error when text changes
-        if (mStateManager != null && mStateManager.isError() && (lengthAfter != lengthBefore)) {
-            setState(PinViewState.Type.NORMAL);
-        }
+            if (mSecurePin != null && mSecurePin.length() > 0) {
+                mSecurePin.wipe();
+            }
 
-        // Clear success when text changes
-        if (mStateManager != null && mStateManager.isSuccess() && (lengthAfter != lengthBefore)) {
-            setState(PinViewState.Type.NORMAL);
+            // The PIN being verified is no longer the one in the field
+            if (mVerification != null) {
+                mVerification.cancel();
+            }
+
+            if (mMetrics != null && lengthAfter != lengthBefore && !mWiping) {
+                mMetrics.onKeystroke();
+            }
+
+            // Clear error when text changes
+            if (mStateManager != null && mStateManager.isError() && (lengthAfter != lengthBefore)) {
+                setState(PinViewState.Type.NORMAL);
+            }
+
+            // Clear success when text changes
+            if (mStateManager != null && mStateManager.isSuccess() && (lengthAfter != lengthBefore)) {
+                setState(PinViewState.Type.NORMAL);
+            }
+
+            // LOCKED is left alone, it ends with its lockout rather than with input
+
+            if (start != text.length()) {
+                moveSelectionToEnd();
+            }
+
+            makeBlink();
+
+            // Redraw only the edited items plus the old and new highlight positions
+            int oldLength = text.length() - lengthAfter + lengthBefore;
+            invalidateItems(start, Math.max(oldLength, text.length()));
+
+            if (mAnimationEnabled && !mWiping && lengthAfter > lengthBefore) {
+                if (mInImeBatchEdit) {
+                    // Animate everything the batch added at once when it ends
+                    mPendingAddStart = mPendingAddEnd > mPendingAddStart
+                            ? Math.min(mPendingAddStart, start) : start;
+                    mPendingAddEnd = Math.max(mPendingAddEnd, start + lengthAfter);
+                } else {
+                    startAddAnimation(start, start + lengthAfter);
+                }
+            }
+
+            if (mTransformed == null) {
+                mTransformed = new PinViewTextBuffer(mPinItemCount);
+            }
+            try {
+                TransformationMethod transformation = getTransformationMethod();
+                if (transformation == null) {
+                    // Copy only the changed characters, resync if the buffer drifted
+                    if (!mTransformed.replace(text, start, lengthBefore, lengthAfter)) {
+                        mTransformed.set(text);
+                    }
+                } else {
+                    mTransformed.set(transformation.getTransformation(getText(), this));
+                }
+            } catch (Exception e) {
+                PinViewLog.e(TAG, "⚠️ Error applying transformation", e);
+                mTransformed.set(text);
+            }
+
+            // Notify listeners when PIN is complete, once per IME batch edit
+            if (!mWiping && getText() != null && getText().length() == mPinItemCount) {
+                if (mInImeBatchEdit) {
+                    mCompletionPending = true;
+                } else {
+                    dispatchPinEntered();
+                }
+            }
+        } finally {
+            PinViewTrace.end(traced);
         }
+    }
 
-        if (start != text.length()) {
-            moveSelectionToEnd();
+    /**
+     * Notifies the completion listeners and starts verification for the complete PIN.
+     */
+    private void dispatchPinEntered() {
+        if (mPinEnteredListener != null) {
+            PinViewLog.i(TAG, "✅ PIN entry complete");
+            mPinEnteredListener.onPinEntered(getText().toString());
+        }
+        if (mSecurePinEnteredListener != null) {
+            if (mSecurePin == null) {
+                mSecurePin = new PinViewTextBuffer(mPinItemCount);
+            }
+            mSecurePin.set(getText());
+            mSecurePinEnteredListener.onPinEntered(mSecurePin.asCharBuffer());
         }
+        // Skip if a listener already changed the text
+        if (mVerification != null && getText() != null && getText().length() == mPinItemCount) {
+            mVerification.start(getText());
+        }
+    }
+
+    @Override
+    public void onBeginBatchEdit() {
+        super.onBeginBatchEdit();
+        mInImeBatchEdit = true;
+        mPendingAddStart = 0;
+        mPendingAddEnd = 0;
+        beginBatch();
+    }
 
-        makeBlink();
+    @Override
+    public void onEndBatchEdit() {
+        super.onEndBatchEdit();
+        finishImeBatchEdit();
+    }
 
-        if (mAnimationEnabled) {
-            final boolean isAdd = lengthAfter - lengthBefore > 0;
-            if (isAdd && mDefaultAddAnimator != null) {
-                try {
-                    mDefaultAddAnimator.end();
-                    mDefaultAddAnimator.start();
-                } catch (Exception e) {
-                    Log.e(TAG, "⚠️ Error starting animation", e);
-                }
+    /**
+     * Runs the work coalesced during an IME batch edit: one add animation for all inserted
+     * characters, one invalidation and at most one completion callback.
+     */
+    private void finishImeBatchEdit() {
+        if (!mInImeBatchEdit) {
+            return;
+        }
+        mInImeBatchEdit = false;
+        if (mPendingAddEnd > mPendingAddStart) {
+            startAddAnimation(mPendingAddStart, Math.min(mPendingAddEnd, getLength()));
+        }
+        endBatch();
+
+        if (mCompletionPending) {
+            mCompletionPending = false;
+            if (getText() != null && getText().length() == mPinItemCount) {
+                dispatchPinEntered();
             }
         }
+    }
 
+    /**
+     * Animates inserted characters: a single character with the add animation, several
+     * (paste, autofill, an IME batch) with the staggered reveal if enabled, else at once.
+     *
+     * @param from The index of the first inserted character
+     * @param to The index after the last inserted character
+     */
+    private void startAddAnimation(int from, int to) {
+        int count = to - from;
         try {
-            TransformationMethod transformation = getTransformationMethod();
-            if (transformation == null) {
-                mTransformed = getText() == null ? "" : getText().toString();
-            } else {
-                CharSequence transformed = transformation.getTransformation(getText(), this);
-                mTransformed = transformed != null ? transformed.toString() : "";
+            if (count == 1 && mDefaultAddAnimator != null) {
+                mDefaultAddAnimator.end();
+                mDefaultAddAnimator.start();
+            } else if (count > 1 && mBulkRevealEnabled && mMainThreadSetupDone) {
+                startRevealAnimation(from, count);
             }
         } catch (Exception e) {
-            Log.e(TAG, "⚠️ Error applying transformation", e);
-            mTransformed = getText() == null ? "" : getText().toString();
+            PinViewLog.e(TAG, "⚠️ Error starting animation", e);
         }
+    }
 
-        // Notify listener when PIN is complete
-        if (mPinEnteredListener != null && getText() != null &&
-                getText().length() == mPinItemCount) {
-            Log.i(TAG, "✅ PIN entry complete");
-            mPinEnteredListener.onPinEntered(getText().toString());
+    /**
+     * Reveals a range of items one after another with one animator, each scaling in like
+     * the add animation, {@link #REVEAL_STAGGER_DELAY} after the previous one.
+     */
+    private void startRevealAnimation(int from, int count) {
+        if (mRevealAnimator == null) {
+            mRevealAnimator = android.animation.ValueAnimator.ofFloat(0f, 1f);
+            mRevealAnimator.setInterpolator(null);
+            mRevealAnimator.addUpdateListener(animation -> {
+                mRevealFraction = animation.getAnimatedFraction();
+                invalidateItems(mRevealStart, mRevealStart + mRevealCount - 1);
+            });
+            PinViewTrace.traceAsync(mRevealAnimator, PinViewTrace.REVEAL_ANIMATION,
+                    System.identityHashCode(this));
+        }
+        mRevealAnimator.cancel();
+        mRevealStart = from;
+        mRevealCount = count;
+        mRevealFraction = 0f;
+        mRevealAnimator.setDuration(ADD_ANIMATION_DURATION + (long) REVEAL_STAGGER_DELAY * (count - 1));
+        mRevealAnimator.start();
+    }
+
+    /**
+     * Gets the scale of an item in the running staggered reveal.
+     *
+     * @param index The index of the PIN item
+     * @return The text scale from 0.5 to 1, or 1 if the item is not being revealed
+     */
+    float getRevealScale(int index) {
+        if (mRevealFraction >= 1f || index < mRevealStart || index >= mRevealStart + mRevealCount) {
+            return 1f;
         }
+        long duration = ADD_ANIMATION_DURATION + (long) REVEAL_STAGGER_DELAY * (mRevealCount - 1);
+        float elapsed = mRevealFraction * duration - (index - mRevealStart) * REVEAL_STAGGER_DELAY;
+        float t = Math.max(0f, Math.min(1f, elapsed / ADD_ANIMATION_DURATION));
+        // Decelerate like the add animation
+        float eased = 1f - (1f - t) * (1f - t);
+        return 0.5f + 0.5f * eased;
     }
 
     @Override
@@ -581,9 +881,11 @@ public class PinEntryView extends AppCompatEditText {
             moveSelectionToEnd();
             makeBlink();
             mAutoFocus = true; // Enable autoFocus when view gains focus
-            Log.v(TAG, "🔍 Focus gained - autoFocus enabled");
+            PinViewLog.v(TAG, "🔍 Focus gained - autoFocus enabled");
         } else {
-            Log.v(TAG, "👋 Focus lost");
+            // Drop out of the shared blink clock right away
+            makeBlink();
+            PinViewLog.v(TAG, "👋 Focus lost");
         }
     }
 
@@ -607,12 +909,20 @@ public class PinEntryView extends AppCompatEditText {
 
     @Override
     protected void onDraw(Canvas canvas) {
-        canvas.save();
+        boolean traced = PinViewTrace.begin(PinViewTrace.ON_DRAW);
+        try {
+            if (mMetrics != null) {
+                mMetrics.onDraw();
+            }
+            canvas.save();
 
-        mDrawer.updatePaints();
-        mDrawer.drawPinView(canvas);
+            mDrawer.updatePaints();
+            mDrawer.drawPinView(canvas);
 
-        canvas.restore();
+            canvas.restore();
+        } finally {
+            PinViewTrace.end(traced);
+        }
     }
 
     /**
@@ -668,7 +978,9 @@ public class PinEntryView extends AppCompatEditText {
             mCursorVisible = visible;
             invalidateCursor(mCursorVisible);
             makeBlink();
-            Log.d(TAG, "👁️ Cursor visibility set to: " + visible);
+            if (PinViewLog.DBG) {
+                PinViewLog.d(TAG, "👁️ Cursor visibility set to: " + visible);
+            }
         }
     }
 
@@ -693,22 +1005,37 @@ public class PinEntryView extends AppCompatEditText {
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
+        if (!mMainThreadSetupDone) {
+            onFirstAttach();
+        }
         resumeBlink();
+        mStateManager.resumeLockoutTimer();
 
-        post(() -> {
-            // Create invisible drawable programmatically
-            Drawable invisibleDrawable = PinViewDrawableFactory.createInvisibleDrawable();
-
-            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
-                setInvisibleTextHandlesViaReflection(invisibleDrawable);
-            }
-        });
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q && mHandlesEditor == null
+                && !PinViewEditorReflection.isUnsupported()) {
+            post(() -> setInvisibleTextHandlesViaReflection(
+                    PinViewDrawableFactory.getInvisibleDrawable()));
+        }
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         suspendBlink();
+        finishImeBatchEdit();
+        if (mRevealAnimator != null) {
+            mRevealAnimator.end();
+        }
+        removeCallbacks(mHideKeyboardRunnable);
+        mStateManager.pauseLockoutTimer();
+        if (mVerification != null) {
+            mVerification.cancel();
+        }
+        mDrawer.releaseDisplayLists();
+        mDrawer.releaseMaskBitmap();
+        if (mMetrics != null) {
+            mMetrics.cancelPending();
+        }
     }
 
     @Override
@@ -745,6 +1072,85 @@ public class PinEntryView extends AppCompatEditText {
     // PUBLIC SETTERS AND GETTERS
     //=====================================================================
 
+    /**
+     * Gets an immutable snapshot of the appearance of this view.
+     *
+     * @return The current config
+     */
+    @NonNull
+    public PinEntryViewConfig getConfig() {
+        return PinEntryViewConfig.from(this);
+    }
+
+    /**
+     * Starts a batched change of the appearance of this view. The returned builder is
+     * initialized with the current values; {@link PinEntryViewConfig.Builder#apply()} applies
+     * the result through {@link #applyConfig(PinEntryViewConfig)}.
+     *
+     * @return A builder bound to this view
+     */
+    @NonNull
+    public PinEntryViewConfig.Builder edit() {
+        return new PinEntryViewConfig.Builder(this);
+    }
+
+    /**
+     * Applies a config with at most one layout request and one invalidation.
+     * Only values that differ from the current ones are applied; the item radius is
+     * applied after the item geometry so it is clamped against the new sizes.
+     *
+     * @param config The config to apply
+     */
+    public void applyConfig(@NonNull PinEntryViewConfig config) {
+        beginBatch();
+        try {
+            if (mViewType != config.getViewType()) setViewType(config.getViewType());
+            if (mGravity != config.getGravity()) setPinItemGravity(config.getGravity());
+            if (mPinItemCount != config.getItemCount()) setItemCount(config.getItemCount());
+            if (mPinItemWidth != config.getItemWidth()) setItemWidth(config.getItemWidth());
+            if (mPinItemHeight != config.getItemHeight()) setItemHeight(config.getItemHeight());
+            if (mPinItemSpacing != config.getItemSpacing()) setItemSpacing(config.getItemSpacing());
+            if (mLineWidth != config.getLineWidth()) setLineWidth(config.getLineWidth());
+            if (mPinItemRadius != config.getItemRadius()) setItemRadius(config.getItemRadius());
+            if (mLineColor != config.getLineColors()) setLineColor(config.getLineColors());
+            if (mCursorColor != config.getCursorColor()) setCursorColor(config.getCursorColor());
+            if (mCursorWidth != config.getCursorWidth()) setCursorWidth(config.getCursorWidth());
+            if (isHideLineWhenFilled() != config.isHideLineWhenFilled()) {
+                setHideLineWhenFilled(config.isHideLineWhenFilled());
+            }
+            if (mAnimationEnabled != config.isAnimationEnabled()) setAnimationEnabled(config.isAnimationEnabled());
+            if (mPasswordHidden != config.isPasswordHidden()) setPasswordHidden(config.isPasswordHidden());
+            if (getItemBackgroundColor() != config.getItemBackgroundColor()) {
+                setItemBackgroundColor(config.getItemBackgroundColor());
+            }
+            if (getErrorColor() != config.getErrorColor()) setErrorColor(config.getErrorColor());
+            if (getErrorTextColor() != config.getErrorTextColor()) setErrorTextColor(config.getErrorTextColor());
+            if (getErrorBackgroundColor() != config.getErrorBackgroundColor()) {
+                setErrorBackgroundColor(config.getErrorBackgroundColor());
+            }
+            if (isErrorShakeEnabled() != config.isErrorShakeEnabled()) {
+                setErrorShakeEnabled(config.isErrorShakeEnabled());
+            }
+            if (getSuccessColor() != config.getSuccessColor()) setSuccessColor(config.getSuccessColor());
+            if (getSuccessTextColor() != config.getSuccessTextColor()) {
+                setSuccessTextColor(config.getSuccessTextColor());
+            }
+            if (getSuccessBackgroundColor() != config.getSuccessBackgroundColor()) {
+                setSuccessBackgroundColor(config.getSuccessBackgroundColor());
+            }
+            if (isSuccessEnabled() != config.isSuccessEnabled()) setSuccessEnabled(config.isSuccessEnabled());
+            if (isSuccessAnimationEnabled() != config.isSuccessAnimationEnabled()) {
+                setSuccessAnimationEnabled(config.isSuccessAnimationEnabled());
+            }
+            setCursorVisible(config.isCursorVisible());
+        } finally {
+            endBatch();
+        }
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🧩 Config applied");
+        }
+    }
+
     /**
      * Sets the gravity for the PIN items when the view width is larger than needed.
      *
@@ -756,9 +1162,12 @@ public class PinEntryView extends AppCompatEditText {
         }
         if (mGravity != gravity) {
             mGravity = gravity;
+            mDrawer.invalidateLayout();
             invalidate();
         }
-        Log.d(TAG, "🔄 Gravity set to: " + gravityToString(gravity));
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🔄 Gravity set to: " + gravityToString(gravity));
+        }
     }
 
     /**
@@ -777,7 +1186,230 @@ public class PinEntryView extends AppCompatEditText {
      */
     public void setOnPinEnteredListener(OnPinEnteredListener listener) {
         this.mPinEnteredListener = listener;
-        Log.d(TAG, "🎧 PIN entry listener set");
+        PinViewLog.d(TAG, "🎧 PIN entry listener set");
+    }
+
+    /**
+     * Sets a listener to be notified with a reusable buffer when the full PIN is entered,
+     * without creating a String of it. Can be used together with
+     * {@link #setOnPinEnteredListener(OnPinEnteredListener)}.
+     *
+     * @param listener The callback interface, or null to remove it
+     */
+    public void setOnSecurePinEnteredListener(@Nullable OnSecurePinEnteredListener listener) {
+        this.mSecurePinEnteredListener = listener;
+        PinViewLog.d(TAG, "🎧 Secure PIN entry listener set");
+    }
+
+    /**
+     * Sets a verifier to run on every completed PIN. Verification runs on the executor,
+     * so slow checks such as key derivation don't block the frame showing the last digit.
+     * When it completes the view switches to {@link PinViewState.Type#SUCCESS} or
+     * {@link PinViewState.Type#ERROR}; editing the PIN or detaching the view cancels it.
+     * A verifier that throws leaves the state unchanged, see
+     * {@link OnPinVerifiedListener#onPinVerificationFailed(RuntimeException)}.
+     *
+     * @param verifier The verifier, or null to stop verifying
+     * @param executor The executor to run the verifier on, may be null with a null verifier
+     * @throws IllegalArgumentException If a verifier is given without an executor
+     */
+    public void setPinVerifier(@Nullable PinVerifier verifier, @Nullable Executor executor) {
+        if (verifier != null && executor == null) {
+            throw new IllegalArgumentException("A PinVerifier needs an executor to run on");
+        }
+        if (mVerification != null) {
+            mVerification.cancel();
+        }
+        mVerification = verifier != null ? new PinViewVerification(this, verifier, executor) : null;
+        PinViewLog.d(TAG, "🔑 PIN verifier set");
+    }
+
+    /**
+     * Sets a listener to be notified with the result of the {@link PinVerifier}.
+     *
+     * @param listener The callback interface, or null to remove it
+     */
+    public void setOnPinVerifiedListener(@Nullable OnPinVerifiedListener listener) {
+        this.mPinVerifiedListener = listener;
+    }
+
+    /**
+     * Checks if a PIN verification is in flight.
+     *
+     * @return True if the verifier is running, false otherwise
+     */
+    public boolean isVerifying() {
+        return mVerification != null && mVerification.isRunning();
+    }
+
+    /**
+     * Called by {@link PinViewVerification} on the main thread with a current result.
+     *
+     * @param verified True if the PIN was verified, false otherwise
+     */
+    void onPinVerified(boolean verified) {
+        if (verified) {
+            mStateManager.recordSuccessfulAttempt();
+            setState(PinViewState.Type.SUCCESS);
+        } else {
+            // Enters the error state, or a lockout once the attempt limit is reached
+            mStateManager.recordFailedAttempt();
+        }
+        if (mPinVerifiedListener != null) {
+            mPinVerifiedListener.onPinVerified(verified);
+        }
+    }
+
+    /**
+     * Called by {@link PinViewVerification} on the main thread when the verifier threw.
+     * This is not a wrong PIN, so no attempt is recorded.
+     *
+     * @param error The exception thrown by the verifier
+     */
+    void onPinVerificationFailed(@NonNull RuntimeException error) {
+        if (mPinVerifiedListener != null) {
+            mPinVerifiedListener.onPinVerificationFailed(error);
+        }
+    }
+
+    /**
+     * Limits failed attempts. Once {@code maxAttempts} attempts in a row failed, the view
+     * enters {@link PinViewState.Type#LOCKED}, clears the PIN and rejects input for
+     * {@code baseLockoutMillis}. Every further lockout doubles the duration, up to
+     * {@code maxLockoutMillis}, until an attempt succeeds.
+     * <p>
+     * Attempts are recorded by the {@link PinVerifier}, or by the app through
+     * {@link #recordFailedAttempt()} and {@link #recordSuccessfulAttempt()}.
+     *
+     * @param maxAttempts Failed attempts before a lockout, or 0 to never lock
+     * @param baseLockoutMillis Duration of the first lockout
+     * @param maxLockoutMillis Upper bound of the lockout duration
+     */
+    public void setAttemptLimit(int maxAttempts, long baseLockoutMillis, long maxLockoutMillis) {
+        mStateManager.setAttemptLimit(maxAttempts, baseLockoutMillis, maxLockoutMillis);
+    }
+
+    /**
+     * Sets a store that persists attempt counters and lockouts across view and process
+     * recreation, restoring any lockout it holds.
+     * <p>
+     * Can be called before or after {@link #setAttemptLimit(int, long, long)}: a restored
+     * lockout runs for the duration it was started with, and the limits apply from the
+     * next failed attempt on.
+     *
+     * @param store The store, or null to keep counters in memory only
+     */
+    public void setAttemptStore(@Nullable PinAttemptStore store) {
+        mStateManager.setAttemptStore(store);
+    }
+
+    /**
+     * Records a failed attempt: shows the error state, or starts a lockout once the
+     * attempt limit is reached. Ignored while locked out.
+     */
+    public void recordFailedAttempt() {
+        mStateManager.recordFailedAttempt();
+    }
+
+    /**
+     * Records a successful attempt, resetting the failed attempt count and the backoff.
+     */
+    public void recordSuccessfulAttempt() {
+        mStateManager.recordSuccessfulAttempt();
+    }
+
+    /**
+     * Gets the failed attempts since the last success or lockout.
+     *
+     * @return The failed attempt count
+     */
+    public int getFailedAttempts() {
+        return mStateManager.getFailedAttempts();
+    }
+
+    /**
+     * Checks if input is locked after too many failed attempts.
+     *
+     * @return True if a lockout is running, false otherwise
+     */
+    public boolean isLockedOut() {
+        return mStateManager.isLockedOut();
+    }
+
+    /**
+     * Gets the time left in the current lockout.
+     *
+     * @return The remaining time in milliseconds, 0 if not locked out
+     */
+    public long getLockoutRemainingMillis() {
+        return mStateManager.getLockoutRemainingMillis();
+    }
+
+    /**
+     * Sets a listener to be notified when a lockout starts or ends.
+     *
+     * @param listener The callback interface, or null to remove it
+     */
+    public void setOnLockoutListener(@Nullable OnLockoutListener listener) {
+        this.mLockoutListener = listener;
+    }
+
+    /**
+     * Called by {@link PinViewStateManager} when a lockout starts or ends.
+     *
+     * @param locked True if a lockout started, false if it ended
+     * @param remainingMillis Time until the lockout ends
+     */
+    void onLockoutChanged(boolean locked, long remainingMillis) {
+        if (locked) {
+            if (mVerification != null) {
+                mVerification.cancel();
+            }
+            wipe();
+        }
+        if (mLockoutListener != null) {
+            mLockoutListener.onLockoutChanged(locked, remainingMillis);
+        }
+    }
+
+    /**
+     * Clears the PIN and zeroes the copies of it held by this view: the Editable is
+     * overwritten with zeroes before it is cleared, and the transformed text and the
+     * buffer passed to {@link OnSecurePinEnteredListener} are zeroed.
+     * <p>
+     * Text watchers see the overwrite as a full-length change and can skip it by checking
+     * {@link #isWiping()}; completion listeners, the input animation and the smart keyboard
+     * behavior are not triggered by it. Copies made outside this view, such as by an input
+     * method or an {@link OnPinEnteredListener}, are not affected.
+     */
+    public void wipe() {
+        Editable text = getText();
+        if (text != null && text.length() > 0) {
+            mWiping = true;
+            try {
+                text.replace(0, text.length(), CharBuffer.wrap(new char[text.length()]));
+                text.clear();
+            } finally {
+                mWiping = false;
+            }
+        }
+        if (mTransformed != null) {
+            mTransformed.wipe();
+        }
+        if (mSecurePin != null) {
+            mSecurePin.wipe();
+        }
+        PinViewLog.d(TAG, "🧽 PIN wiped");
+    }
+
+    /**
+     * Checks if {@link #wipe()} is in progress, for text watchers that should ignore the
+     * zero overwrite.
+     *
+     * @return True while the PIN is being wiped, false otherwise
+     */
+    public boolean isWiping() {
+        return mWiping;
     }
 
     /**
@@ -795,7 +1427,9 @@ public class PinEntryView extends AppCompatEditText {
         setFocusable(true);
         setFocusableInTouchMode(true);
 
-        Log.d(TAG, "🔍 Auto-focus set to: " + autoFocus);
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🔍 Auto-focus set to: " + autoFocus);
+        }
     }
 
     /**
@@ -815,7 +1449,116 @@ public class PinEntryView extends AppCompatEditText {
     public void setPasswordHidden(boolean hidden) {
         mPasswordHidden = hidden;
         requestLayout();
-        Log.d(TAG, "🙈 Password hidden mode set to: " + hidden);
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🙈 Password hidden mode set to: " + hidden);
+        }
+    }
+
+    /**
+     * Sets whether password dots are blitted from a pre-rasterized bitmap.
+     * <p>
+     * The dot is rasterized once per size and color instead of drawing an anti-aliased
+     * circle for every filled item on every frame, which is measurable on software-rendered
+     * builds. Has no effect unless {@link #isPasswordHidden()} is true and no
+     * transformation method is set.
+     *
+     * @param enabled True to draw mask dots from a cached bitmap, false to draw circles
+     */
+    public void setMaskBitmapEnabled(boolean enabled) {
+        mDrawer.setMaskBitmapEnabled(enabled);
+        invalidate();
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🟣 Mask bitmap " + (enabled ? "enabled" : "disabled"));
+        }
+    }
+
+    /**
+     * Checks if password dots are blitted from a pre-rasterized bitmap.
+     *
+     * @return True if enabled, false otherwise
+     */
+    public boolean isMaskBitmapEnabled() {
+        return mDrawer.isMaskBitmapEnabled();
+    }
+
+    /**
+     * Enables or disables Systrace/Perfetto sections for all PinEntryView instances.
+     * <p>
+     * When enabled and a trace is being captured, onDraw, onMeasure, onTextChanged,
+     * attribute parsing, the handle reflection and state changes show up as named
+     * sections, and the input, shake and success animations as async sections.
+     * Disabled by default.
+     *
+     * @param enabled True to emit trace sections, false otherwise
+     */
+    public static void setTracingEnabled(boolean enabled) {
+        PinViewTrace.setEnabled(enabled);
+    }
+
+    /**
+     * Checks if trace sections are enabled.
+     *
+     * @return True if trace sections are enabled, false otherwise
+     */
+    public static boolean isTracingEnabled() {
+        return PinViewTrace.isEnabled();
+    }
+
+    /**
+     * Enables or disables latency and rendering metrics.
+     * <p>
+     * While enabled, the view measures the time from each text change to the frame that
+     * shows it, and counts draw passes, invalidations and blink ticks. Disabling drops
+     * all collected data. Disabled by default.
+     *
+     * @param enabled True to collect metrics, false otherwise
+     * @see #getMetrics()
+     * @see #setOnMetricsListener(PinViewMetrics.Listener)
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled == (mMetrics != null)) {
+            return;
+        }
+        if (enabled) {
+            mMetrics = new PinViewMetrics(this);
+            mMetrics.setListener(mMetricsListener);
+        } else {
+            mMetrics.cancelPending();
+            mMetrics = null;
+        }
+        PinViewLog.d(TAG, enabled ? "📊 Metrics enabled" : "📊 Metrics disabled");
+    }
+
+    /**
+     * Checks if latency and rendering metrics are being collected.
+     *
+     * @return True if metrics are enabled, false otherwise
+     */
+    public boolean isMetricsEnabled() {
+        return mMetrics != null;
+    }
+
+    /**
+     * Gets the metrics collector, for snapshots and resets.
+     *
+     * @return The metrics collector, or null if metrics are disabled
+     */
+    @Nullable
+    public PinViewMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * Sets a listener notified with the latency of every rendered keystroke.
+     * Only called while metrics are enabled.
+     *
+     * @param listener The listener, or null to remove it
+     */
+    public void setOnMetricsListener(@Nullable PinViewMetrics.Listener listener) {
+        mMetricsListener = listener;
+        if (mMetrics != null) {
+            mMetrics.setListener(listener);
+        }
     }
 
     /**
@@ -829,10 +1572,14 @@ public class PinEntryView extends AppCompatEditText {
 
     /**
      * Gets the transformed text (with any transformation method applied).
+     * <p>
+     * The returned sequence is a live view of a buffer the view reuses, it changes with
+     * the text. Call {@code toString()} on it for a copy.
      *
-     * @return The transformed text
+     * @return The transformed text, or null if no text was set yet
      */
-    public String getTransformedText() {
+    @Nullable
+    public CharSequence getTransformedText() {
         return mTransformed;
     }
 
@@ -861,8 +1608,11 @@ public class PinEntryView extends AppCompatEditText {
      */
     public void setLineColor(@ColorInt int color) {
         mLineColor = ColorStateList.valueOf(color);
+        invalidatePalette();
         updateColors();
-        Log.d(TAG, "🎨 Line color set to: #" + Integer.toHexString(0xFFFFFF & color));
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🎨 Line color set to: #" + Integer.toHexString(0xFFFFFF & color));
+        }
     }
 
     /**
@@ -873,10 +1623,11 @@ public class PinEntryView extends AppCompatEditText {
     public void setLineColor(ColorStateList colors) {
         if (colors == null) {
             mLineColor = ColorStateList.valueOf(Color.BLACK);
-            Log.w(TAG, "⚠️ Null ColorStateList provided, using default black");
+            PinViewLog.w(TAG, "⚠️ Null ColorStateList provided, using default black");
         } else {
             mLineColor = colors;
         }
+        invalidatePalette();
         updateColors();
     }
 
@@ -909,10 +1660,21 @@ public class PinEntryView extends AppCompatEditText {
         return mStateManager.getActiveTextColor();
     }
 
+    /**
+     * Gets the colors resolved for the current state and drawable state.
+     *
+     * @return The resolved color palette
+     */
+    @NonNull
+    public PinViewPalette getPalette() {
+        return mStateManager.getPalette();
+    }
+
     /**
      * Sets the view state
      *
-     * @param state The state to set (NORMAL, ERROR, SUCCESS)
+     * @param state The state to set (NORMAL, ERROR, SUCCESS, LOCKED). A lockout started
+     *              after too many failed attempts can't be left before it expires
      */
     public void setState(PinViewState.Type state) {
         switch (state) {
@@ -922,22 +1684,29 @@ public class PinEntryView extends AppCompatEditText {
             case SUCCESS:
                 mStateManager.setSuccess(true);
                 break;
+            case LOCKED:
+                mStateManager.setLocked(true);
+                break;
             default:
                 mStateManager.setError(false);
                 mStateManager.setSuccess(false);
+                mStateManager.setLocked(false);
                 break;
         }
-        Log.d(TAG, "🎛️ State set to: " + state);
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🎛️ State set to: " + state);
+        }
     }
 
     /**
      * Gets the current view state
      *
-     * @return The current state (NORMAL, ERROR, SUCCESS)
+     * @return The current state (NORMAL, ERROR, SUCCESS, LOCKED)
      */
     public PinViewState.Type getState() {
         if (mStateManager.isError()) return PinViewState.Type.ERROR;
         if (mStateManager.isSuccess()) return PinViewState.Type.SUCCESS;
+        if (mStateManager.isLocked()) return PinViewState.Type.LOCKED;
         return PinViewState.Type.NORMAL;
     }
 
@@ -954,7 +1723,7 @@ public class PinEntryView extends AppCompatEditText {
     /**
      * Sets the text color for a specific state
      *
-     * @param state The state to set color for (ERROR, SUCCESS)
+     * @param state The state to set color for (ERROR, SUCCESS, LOCKED)
      * @param color The color to use
      */
     public void setStateTextColor(PinViewState.Type state, @ColorInt int color) {
@@ -965,6 +1734,9 @@ public class PinEntryView extends AppCompatEditText {
             case SUCCESS:
                 mStateManager.setSuccessTextColor(color);
                 break;
+            case LOCKED:
+                mStateManager.setLockedTextColor(color);
+                break;
         }
     }
 
@@ -981,6 +1753,8 @@ public class PinEntryView extends AppCompatEditText {
                 return mStateManager.getErrorTextColor();
             case SUCCESS:
                 return mStateManager.getSuccessTextColor();
+            case LOCKED:
+                return mStateManager.getLockedTextColor();
             default:
                 return getCurrentTextColor();
         }
@@ -989,7 +1763,7 @@ public class PinEntryView extends AppCompatEditText {
     /**
      * Sets the background color for a specific state
      *
-     * @param state The state to set color for (ERROR, SUCCESS)
+     * @param state The state to set color for (ERROR, SUCCESS, LOCKED)
      * @param color The color to use
      */
     public void setStateBackgroundColor(PinViewState.Type state, @ColorInt int color) {
@@ -1000,6 +1774,9 @@ public class PinEntryView extends AppCompatEditText {
             case SUCCESS:
                 mStateManager.setSuccessBackgroundColor(color);
                 break;
+            case LOCKED:
+                mStateManager.setLockedBackgroundColor(color);
+                break;
         }
     }
 
@@ -1016,6 +1793,8 @@ public class PinEntryView extends AppCompatEditText {
                 return mStateManager.getErrorBackgroundColor();
             case SUCCESS:
                 return mStateManager.getSuccessBackgroundColor();
+            case LOCKED:
+                return mStateManager.getLockedBackgroundColor();
             default:
                 return mItemBackgroundColor;
         }
@@ -1070,11 +1849,15 @@ public class PinEntryView extends AppCompatEditText {
 
             animatorSet.playTogether(scaleX, scaleY);
             animatorSet.setDuration(500);
+            if (PinViewTrace.isEnabled()) {
+                PinViewTrace.traceAsync(animatorSet, PinViewTrace.SUCCESS_ANIMATION,
+                        System.identityHashCode(this));
+            }
             animatorSet.start();
 
-            Log.d(TAG, "✅ Success animation started");
+            PinViewLog.d(TAG, "✅ Success animation started");
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error starting success animation", e);
+            PinViewLog.e(TAG, "❌ Error starting success animation", e);
         }
     }
 
@@ -1086,10 +1869,14 @@ public class PinEntryView extends AppCompatEditText {
             android.animation.ObjectAnimator animator = android.animation.ObjectAnimator.ofFloat(
                     this, "translationX", 0, 15, -15, 15, -15, 8, -8, 0);
             animator.setDuration(700);
+            if (PinViewTrace.isEnabled()) {
+                PinViewTrace.traceAsync(animator, PinViewTrace.SHAKE_ANIMATION,
+                        System.identityHashCode(this));
+            }
             animator.start();
-            Log.d(TAG, "🔄 Shake animation started");
+            PinViewLog.d(TAG, "🔄 Shake animation started");
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error starting shake animation", e);
+            PinViewLog.e(TAG, "❌ Error starting shake animation", e);
         }
     }
 
@@ -1111,8 +1898,11 @@ public class PinEntryView extends AppCompatEditText {
     public void setLineWidth(@Px int borderWidth) {
         mLineWidth = borderWidth;
         checkItemRadius();
+        mDrawer.invalidateLayout();
         requestLayout();
-        Log.d(TAG, "📏 Line width set to: " + borderWidth + "px");
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "📏 Line width set to: " + borderWidth + "px");
+        }
     }
 
     /**
@@ -1139,12 +1929,16 @@ public class PinEntryView extends AppCompatEditText {
      */
     public void setViewType(int viewType) {
         if (viewType < 0 || viewType > 3) {
-            Log.w(TAG, "⚠️ Invalid view type: " + viewType + ", defaulting to rectangle");
+            if (PinViewLog.DBG) {
+                PinViewLog.w(TAG, "⚠️ Invalid view type: " + viewType + ", defaulting to rectangle");
+            }
             viewType = VIEW_TYPE_RECTANGLE;
         }
         mViewType = viewType;
         requestLayout();
-        Log.d(TAG, "🔄 View type set to: " + viewType);
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🔄 View type set to: " + viewType);
+        }
     }
 
     /**
@@ -1164,8 +1958,11 @@ public class PinEntryView extends AppCompatEditText {
     public void setItemCount(int count) {
         mPinItemCount = count;
         setMaxLength(count);
+        mDrawer.invalidateLayout();
         requestLayout();
-        Log.d(TAG, "🔢 Item count set to: " + count);
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🔢 Item count set to: " + count);
+        }
     }
 
     /**
@@ -1186,7 +1983,9 @@ public class PinEntryView extends AppCompatEditText {
         mPinItemRadius = itemRadius;
         checkItemRadius();
         requestLayout();
-        Log.d(TAG, "🔘 Item radius set to: " + itemRadius + "px");
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🔘 Item radius set to: " + itemRadius + "px");
+        }
     }
 
     /**
@@ -1205,8 +2004,11 @@ public class PinEntryView extends AppCompatEditText {
      */
     public void setItemSpacing(@Px int itemSpacing) {
         mPinItemSpacing = itemSpacing;
+        mDrawer.invalidateLayout();
         requestLayout();
-        Log.d(TAG, "↔️ Item spacing set to: " + itemSpacing + "px");
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "↔️ Item spacing set to: " + itemSpacing + "px");
+        }
     }
 
     /**
@@ -1227,8 +2029,11 @@ public class PinEntryView extends AppCompatEditText {
     public void setItemHeight(@Px int itemHeight) {
         mPinItemHeight = itemHeight;
         updateCursorHeight();
+        mDrawer.invalidateLayout();
         requestLayout();
-        Log.d(TAG, "↕️ Item height set to: " + itemHeight + "px");
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "↕️ Item height set to: " + itemHeight + "px");
+        }
     }
 
     /**
@@ -1248,8 +2053,11 @@ public class PinEntryView extends AppCompatEditText {
     public void setItemWidth(@Px int itemWidth) {
         mPinItemWidth = itemWidth;
         checkItemRadius();
+        mDrawer.invalidateLayout();
         requestLayout();
-        Log.d(TAG, "↔️ Item width set to: " + itemWidth + "px");
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "↔️ Item width set to: " + itemWidth + "px");
+        }
     }
 
     /**
@@ -1268,7 +2076,9 @@ public class PinEntryView extends AppCompatEditText {
      */
     public void setAnimationEnabled(boolean enable) {
         mAnimationEnabled = enable;
-        Log.d(TAG, "🎭 Animation " + (enable ? "enabled" : "disabled"));
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🎭 Animation " + (enable ? "enabled" : "disabled"));
+        }
     }
 
     /**
@@ -1280,6 +2090,55 @@ public class PinEntryView extends AppCompatEditText {
         return mAnimationEnabled;
     }
 
+    /**
+     * Enables or disables the staggered reveal of characters inserted in bulk, e.g. a
+     * pasted or autofilled code. Without it such characters appear at once. Has no effect
+     * unless {@link #isAnimationEnabled()} is true.
+     *
+     * @param enabled True to reveal bulk insertions one item after another
+     */
+    public void setBulkRevealAnimationEnabled(boolean enabled) {
+        mBulkRevealEnabled = enabled;
+        if (!enabled && mRevealAnimator != null) {
+            mRevealAnimator.end();
+        }
+    }
+
+    /**
+     * Gets whether bulk insertions are revealed with a staggered animation.
+     *
+     * @return True if the staggered reveal is enabled, false otherwise
+     */
+    public boolean isBulkRevealAnimationEnabled() {
+        return mBulkRevealEnabled;
+    }
+
+    /**
+     * Enables or disables per-item display lists.
+     * <p>
+     * When enabled on API 29+ with hardware acceleration, each item is recorded into its own
+     * {@link android.graphics.RenderNode} and only items whose content or state changed are
+     * re-recorded on invalidate. Older APIs and software canvases keep drawing directly.
+     *
+     * @param enabled True to enable per-item display lists, false to disable
+     */
+    public void setItemDisplayListsEnabled(boolean enabled) {
+        mDrawer.setItemDisplayListsEnabled(enabled);
+        invalidate();
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🧱 Item display lists " + (enabled ? "enabled" : "disabled"));
+        }
+    }
+
+    /**
+     * Checks if per-item display lists are enabled.
+     *
+     * @return True if per-item display lists are enabled, false otherwise
+     */
+    public boolean isItemDisplayListsEnabled() {
+        return mDrawer.isItemDisplayListsEnabled();
+    }
+
     /**
      * Sets whether to hide the item border/line when the item is filled.
      *
@@ -1287,7 +2146,9 @@ public class PinEntryView extends AppCompatEditText {
      */
     public void setHideLineWhenFilled(boolean hideLineWhenFilled) {
         this.mHideLineWhenFilled = hideLineWhenFilled;
-        Log.d(TAG, "🙈 Hide line when filled: " + hideLineWhenFilled);
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🙈 Hide line when filled: " + hideLineWhenFilled);
+        }
     }
 
     /**
@@ -1307,6 +2168,7 @@ public class PinEntryView extends AppCompatEditText {
     public void setItemBackgroundResources(@DrawableRes int resId) {
         if (resId == 0) {
             mItemBackground = null;
+            mDrawer.invalidateDisplayLists();
             invalidate();
             return;
         }
@@ -1315,11 +2177,14 @@ public class PinEntryView extends AppCompatEditText {
             Drawable drawable = ResourcesCompat.getDrawable(getResources(), resId, getContext().getTheme());
             if (drawable != null) {
                 mItemBackground = drawable;
+                mDrawer.invalidateDisplayLists();
                 invalidate();
-                Log.d(TAG, "🖼️ Item background resource set: " + resId);
+                if (PinViewLog.DBG) {
+                    PinViewLog.d(TAG, "🖼️ Item background resource set: " + resId);
+                }
             }
         } catch (Resources.NotFoundException e) {
-            Log.e(TAG, "🚫 Resource not found: " + resId);
+            PinViewLog.e(TAG, "🚫 Resource not found: " + resId);
         }
     }
 
@@ -1337,8 +2202,11 @@ public class PinEntryView extends AppCompatEditText {
             ((ColorDrawable) mItemBackground.mutate()).setColor(color);
         }
 
+        mDrawer.invalidateDisplayLists();
         invalidate();
-        Log.d(TAG, "🎨 Item background color set to: #" + Integer.toHexString(0xFFFFFF & color));
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🎨 Item background color set to: #" + Integer.toHexString(0xFFFFFF & color));
+        }
     }
 
     /**
@@ -1364,7 +2232,7 @@ public class PinEntryView extends AppCompatEditText {
     /**
      * Sets the line color for a specific state
      *
-     * @param state The state to set color for (ERROR, SUCCESS)
+     * @param state The state to set color for (ERROR, SUCCESS, LOCKED)
      * @param color The color to use
      */
     public void setStateLineColor(PinViewState.Type state, @ColorInt int color) {
@@ -1375,8 +2243,13 @@ public class PinEntryView extends AppCompatEditText {
             case SUCCESS:
                 mStateManager.setSuccessColor(color);
                 break;
+            case LOCKED:
+                mStateManager.setLockedColor(color);
+                break;
+        }
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🎨 " + state + " line color set to: #" + Integer.toHexString(0xFFFFFF & color));
         }
-        Log.d(TAG, "🎨 " + state + " line color set to: #" + Integer.toHexString(0xFFFFFF & color));
     }
 
     /**
@@ -1392,6 +2265,8 @@ public class PinEntryView extends AppCompatEditText {
                 return mStateManager.getErrorColor();
             case SUCCESS:
                 return mStateManager.getSuccessColor();
+            case LOCKED:
+                return mStateManager.getLockedColor();
             default:
                 return mCurLineColor;
         }
@@ -1574,7 +2449,9 @@ public class PinEntryView extends AppCompatEditText {
      */
     public void setSuccessEnabled(boolean enabled) {
         // This is handled automatically by the state manager
-        Log.d(TAG, "✅ Success state " + (enabled ? "enabled" : "disabled"));
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "✅ Success state " + (enabled ? "enabled" : "disabled"));
+        }
     }
 
     /**
@@ -1649,8 +2526,9 @@ public class PinEntryView extends AppCompatEditText {
      */
     public void setItemBackground(Drawable background) {
         mItemBackground = background;
+        mDrawer.invalidateDisplayLists();
         invalidate();
-        Log.d(TAG, "🖼️ Item background set");
+        PinViewLog.d(TAG, "🖼️ Item background set");
     }
 
     /**
@@ -1672,7 +2550,9 @@ public class PinEntryView extends AppCompatEditText {
         if (isCursorVisible()) {
             invalidateCursor(true);
         }
-        Log.d(TAG, "📏 Cursor width set to: " + width + "px");
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "📏 Cursor width set to: " + width + "px");
+        }
     }
 
     /**
@@ -1692,10 +2572,13 @@ public class PinEntryView extends AppCompatEditText {
     public void setCursorColor(@ColorInt int color) {
         mCursorColor = color;
         mCursorColorSet = true;
+        invalidatePalette();
         if (isCursorVisible()) {
             invalidateCursor(true);
         }
-        Log.d(TAG, "🎨 Cursor color set to: #" + Integer.toHexString(0xFFFFFF & color));
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🎨 Cursor color set to: #" + Integer.toHexString(0xFFFFFF & color));
+        }
     }
 
     /**
@@ -1752,6 +2635,8 @@ public class PinEntryView extends AppCompatEditText {
         if (dismissOnComplete) {
             setSmartKeyboardBehavior(true);
         } else {
+            setSmartKeyboardBehavior(false);
+
             // Remove text watchers that might auto-dismiss
             TextWatcher[] watchers = getTag() instanceof TextWatcher[] ?
                     (TextWatcher[]) getTag() : null;
@@ -1768,9 +2653,15 @@ public class PinEntryView extends AppCompatEditText {
      * This gives more control over keyboard behavior.
      */
     public void setSmartKeyboardBehavior(boolean enabled) {
-        if (enabled) {
+        if (!enabled) {
+            if (mSmartKeyboardWatcher != null) {
+                removeTextChangedListener(mSmartKeyboardWatcher);
+                mSmartKeyboardWatcher = null;
+            }
+            removeCallbacks(mHideKeyboardRunnable);
+        } else if (mSmartKeyboardWatcher == null) {
             // Add text watcher to automatically hide keyboard when PIN is complete
-            addTextChangedListener(new TextWatcher() {
+            mSmartKeyboardWatcher = new TextWatcher() {
                 @Override
                 public void beforeTextChanged(CharSequence s, int start, int count, int after) {
                     // Not needed
@@ -1783,12 +2674,16 @@ public class PinEntryView extends AppCompatEditText {
 
                 @Override
                 public void afterTextChanged(Editable s) {
-                    if (s.length() == mPinItemCount) {
-                        // PIN is complete, hide keyboard after a short delay
-                        postDelayed(() -> hideKeyboard(), 200);
+                    // The zero overwrite in wipe() is full length but not a completed PIN
+                    if (!mWiping && s.length() == mPinItemCount) {
+                        // PIN is complete, hide keyboard after a short delay. Replace a
+                        // pending hide rather than queueing one per change.
+                        removeCallbacks(mHideKeyboardRunnable);
+                        postDelayed(mHideKeyboardRunnable, HIDE_KEYBOARD_DELAY);
                     }
                 }
-            });
+            };
+            addTextChangedListener(mSmartKeyboardWatcher);
         }
     }
 
@@ -1808,7 +2703,7 @@ public class PinEntryView extends AppCompatEditText {
     private void showKeyboard() {
         // Don't show keyboard if autoFocus is disabled
         if (!mAutoFocus && !isFocused()) {
-            Log.d(TAG, "🔍 Ignoring keyboard request - autoFocus disabled and view not focused");
+            PinViewLog.d(TAG, "🔍 Ignoring keyboard request - autoFocus disabled and view not focused");
             return;
         }
 
@@ -1854,11 +2749,23 @@ public class PinEntryView extends AppCompatEditText {
             inval = true;
         }
 
+        // Drawable state may have changed the resolved normal line color
+        invalidatePalette();
+
         if (inval) {
             invalidate();
         }
     }
 
+    /**
+     * Marks the resolved color palette as stale.
+     */
+    private void invalidatePalette() {
+        if (mStateManager != null) {
+            mStateManager.invalidatePalette();
+        }
+    }
+
     /**
      * Checks if the cursor should blink.
      * Now respects autoFocus setting.
@@ -1870,20 +2777,21 @@ public class PinEntryView extends AppCompatEditText {
     }
 
     /**
-     * Sets up cursor blinking.
+     * Sets up cursor blinking on the shared blink clock.
      */
     private void makeBlink() {
         if (shouldBlink()) {
             if (mBlink == null) {
                 mBlink = new PinViewBlink(this);
             }
-            removeCallbacks(mBlink);
-            mDrawCursor = false;
-            postDelayed(mBlink, BLINK);
+            // Visible right after typing or focusing, not whatever phase the clock is in
+            PinViewBlinkClock.getInstance().restartPhase();
+            mBlink.start();
         } else {
             if (mBlink != null) {
-                removeCallbacks(mBlink);
+                mBlink.stop();
             }
+            invalidateCursor(false);
         }
     }
 
@@ -1907,6 +2815,18 @@ public class PinEntryView extends AppCompatEditText {
         }
     }
 
+    /**
+     * Called by {@link PinViewBlink} on every tick of the shared blink clock.
+     *
+     * @param showCursor The new cursor phase
+     */
+    void onBlinkTick(boolean showCursor) {
+        if (mMetrics != null) {
+            mMetrics.onBlinkTick();
+        }
+        invalidateCursor(showCursor);
+    }
+
     /**
      * Invalidates the cursor display.
      *
@@ -1915,10 +2835,113 @@ public class PinEntryView extends AppCompatEditText {
     public void invalidateCursor(boolean showCursor) {
         if (mDrawCursor != showCursor) {
             mDrawCursor = showCursor;
+            // The cursor is only ever drawn inside the active (next) item
+            invalidateItem(getLength());
+        }
+    }
+
+    /**
+     * Invalidates only the bounds of a single PIN item.
+     *
+     * @param index The index of the PIN item
+     */
+    void invalidateItem(int index) {
+        invalidateItems(index, index);
+    }
+
+    /**
+     * Invalidates the union of the bounds of a range of PIN items.
+     * Indexes outside the item range are ignored.
+     *
+     * @param from The first item index, inclusive
+     * @param to The last item index, inclusive
+     */
+    void invalidateItems(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, mPinItemCount - 1);
+        if (from > to) {
+            return;
+        }
+        if (mBatchDepth > 0 || mDrawer == null || getWidth() == 0 || getHeight() == 0) {
+            // Batching, or not laid out yet (or still inside the super constructor)
+            invalidate();
+            return;
+        }
+
+        mDirtyRect.setEmpty();
+        for (int i = from; i <= to; i++) {
+            if (mDrawer.getItemBounds(i, mDirtyItemRect)) {
+                mDirtyRect.union(mDirtyItemRect);
+            }
+        }
+        if (mDirtyRect.isEmpty()) {
+            invalidate();
+        } else {
+            if (mMetrics != null) {
+                mMetrics.onInvalidate();
+            }
+            invalidate(mDirtyRect.left, mDirtyRect.top, mDirtyRect.right, mDirtyRect.bottom);
+        }
+    }
+
+    /**
+     * Starts deferring layout requests and invalidations until the matching
+     * {@link #endBatch()}, so that a group of setters costs at most one of each.
+     * Batches may nest.
+     */
+    void beginBatch() {
+        mBatchDepth++;
+    }
+
+    /**
+     * Ends a batch started by {@link #beginBatch()}. When the outermost batch ends, a
+     * deferred layout request and invalidation are issued once, through
+     * {@link #requestLayout()} and {@link #invalidate()}.
+     */
+    void endBatch() {
+        if (mBatchDepth == 0 || --mBatchDepth > 0) {
+            return;
+        }
+        if (mBatchLayoutRequested) {
+            mBatchLayoutRequested = false;
+            requestLayout();
+        }
+        if (mBatchInvalidated) {
+            mBatchInvalidated = false;
             invalidate();
         }
     }
 
+    /**
+     * Checks if layout requests and invalidations are currently being deferred.
+     *
+     * @return True inside {@link #beginBatch()} and {@link #endBatch()}, false otherwise
+     */
+    boolean isBatching() {
+        return mBatchDepth > 0;
+    }
+
+    @Override
+    public void requestLayout() {
+        if (mBatchDepth > 0) {
+            mBatchLayoutRequested = true;
+            return;
+        }
+        super.requestLayout();
+    }
+
+    @Override
+    public void invalidate() {
+        if (mBatchDepth > 0) {
+            mBatchInvalidated = true;
+            return;
+        }
+        if (mMetrics != null) {
+            mMetrics.onInvalidate();
+        }
+        super.invalidate();
+    }
+
     /**
      * Updates the cursor height based on current text size.
      */
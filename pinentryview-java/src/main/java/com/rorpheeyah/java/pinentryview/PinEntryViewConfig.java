@@ -0,0 +1,495 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.content.res.ColorStateList;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Px;
+
+/**
+ * Immutable snapshot of the appearance of a PinEntryView.
+ * <p>
+ * Obtain one with {@link PinEntryView#getConfig()}, derive variants with
+ * {@link #toBuilder()} and apply them with {@link PinEntryView#applyConfig(PinEntryViewConfig)},
+ * which changes every property with at most one layout request and one invalidation.
+ * For one-off changes use {@link PinEntryView#edit()}:
+ * <pre>
+ * pinEntryView.edit()
+ *         .setItemCount(6)
+ *         .setItemWidth(width)
+ *         .setItemSpacing(spacing)
+ *         .apply();
+ * </pre>
+ * Configs are not tied to the view they were taken from, so e.g. a light and a dark
+ * config can be built once and applied to every field on a theme switch.
+ */
+public final class PinEntryViewConfig {
+
+    private final int mViewType;
+    private final int mGravity;
+    private final int mItemCount;
+    private final int mItemWidth;
+    private final int mItemHeight;
+    private final int mItemRadius;
+    private final int mItemSpacing;
+    private final int mLineWidth;
+    private final ColorStateList mLineColors;
+    private final int mCursorColor;
+    private final int mCursorWidth;
+    private final boolean mCursorVisible;
+    private final boolean mHideLineWhenFilled;
+    private final boolean mAnimationEnabled;
+    private final boolean mPasswordHidden;
+    private final int mItemBackgroundColor;
+    private final int mErrorColor;
+    private final int mErrorTextColor;
+    private final int mErrorBackgroundColor;
+    private final boolean mErrorShakeEnabled;
+    private final int mSuccessColor;
+    private final int mSuccessTextColor;
+    private final int mSuccessBackgroundColor;
+    private final boolean mSuccessEnabled;
+    private final boolean mSuccessAnimationEnabled;
+
+    private PinEntryViewConfig(@NonNull Builder builder) {
+        mViewType = builder.mViewType;
+        mGravity = builder.mGravity;
+        mItemCount = builder.mItemCount;
+        mItemWidth = builder.mItemWidth;
+        mItemHeight = builder.mItemHeight;
+        mItemRadius = builder.mItemRadius;
+        mItemSpacing = builder.mItemSpacing;
+        mLineWidth = builder.mLineWidth;
+        mLineColors = builder.mLineColors;
+        mCursorColor = builder.mCursorColor;
+        mCursorWidth = builder.mCursorWidth;
+        mCursorVisible = builder.mCursorVisible;
+        mHideLineWhenFilled = builder.mHideLineWhenFilled;
+        mAnimationEnabled = builder.mAnimationEnabled;
+        mPasswordHidden = builder.mPasswordHidden;
+        mItemBackgroundColor = builder.mItemBackgroundColor;
+        mErrorColor = builder.mErrorColor;
+        mErrorTextColor = builder.mErrorTextColor;
+        mErrorBackgroundColor = builder.mErrorBackgroundColor;
+        mErrorShakeEnabled = builder.mErrorShakeEnabled;
+        mSuccessColor = builder.mSuccessColor;
+        mSuccessTextColor = builder.mSuccessTextColor;
+        mSuccessBackgroundColor = builder.mSuccessBackgroundColor;
+        mSuccessEnabled = builder.mSuccessEnabled;
+        mSuccessAnimationEnabled = builder.mSuccessAnimationEnabled;
+    }
+
+    /**
+     * Captures the current appearance of a view.
+     */
+    @NonNull
+    static PinEntryViewConfig from(@NonNull PinEntryView view) {
+        Builder builder = new Builder();
+        builder.mViewType = view.getViewType();
+        builder.mGravity = view.getGravity();
+        builder.mItemCount = view.getItemCount();
+        builder.mItemWidth = view.getItemWidth();
+        builder.mItemHeight = view.getItemHeight();
+        builder.mItemRadius = view.getItemRadius();
+        builder.mItemSpacing = view.getItemSpacing();
+        builder.mLineWidth = view.getLineWidth();
+        builder.mLineColors = view.getLineColors();
+        builder.mCursorColor = view.getCursorColor();
+        builder.mCursorWidth = view.getCursorWidth();
+        builder.mCursorVisible = view.isCursorVisible();
+        builder.mHideLineWhenFilled = view.isHideLineWhenFilled();
+        builder.mAnimationEnabled = view.isAnimationEnabled();
+        builder.mPasswordHidden = view.isPasswordHidden();
+        builder.mItemBackgroundColor = view.getItemBackgroundColor();
+        builder.mErrorColor = view.getErrorColor();
+        builder.mErrorTextColor = view.getErrorTextColor();
+        builder.mErrorBackgroundColor = view.getErrorBackgroundColor();
+        builder.mErrorShakeEnabled = view.isErrorShakeEnabled();
+        builder.mSuccessColor = view.getSuccessColor();
+        builder.mSuccessTextColor = view.getSuccessTextColor();
+        builder.mSuccessBackgroundColor = view.getSuccessBackgroundColor();
+        builder.mSuccessEnabled = view.isSuccessEnabled();
+        builder.mSuccessAnimationEnabled = view.isSuccessAnimationEnabled();
+        return builder.build();
+    }
+
+    /**
+     * Creates a builder initialized with the values of this config.
+     *
+     * @return A new builder
+     */
+    @NonNull
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public int getViewType() {
+        return mViewType;
+    }
+
+    public int getGravity() {
+        return mGravity;
+    }
+
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    @Px
+    public int getItemWidth() {
+        return mItemWidth;
+    }
+
+    @Px
+    public int getItemHeight() {
+        return mItemHeight;
+    }
+
+    @Px
+    public int getItemRadius() {
+        return mItemRadius;
+    }
+
+    @Px
+    public int getItemSpacing() {
+        return mItemSpacing;
+    }
+
+    @Px
+    public int getLineWidth() {
+        return mLineWidth;
+    }
+
+    public ColorStateList getLineColors() {
+        return mLineColors;
+    }
+
+    @ColorInt
+    public int getCursorColor() {
+        return mCursorColor;
+    }
+
+    @Px
+    public int getCursorWidth() {
+        return mCursorWidth;
+    }
+
+    public boolean isCursorVisible() {
+        return mCursorVisible;
+    }
+
+    public boolean isHideLineWhenFilled() {
+        return mHideLineWhenFilled;
+    }
+
+    public boolean isAnimationEnabled() {
+        return mAnimationEnabled;
+    }
+
+    public boolean isPasswordHidden() {
+        return mPasswordHidden;
+    }
+
+    @ColorInt
+    public int getItemBackgroundColor() {
+        return mItemBackgroundColor;
+    }
+
+    @ColorInt
+    public int getErrorColor() {
+        return mErrorColor;
+    }
+
+    @ColorInt
+    public int getErrorTextColor() {
+        return mErrorTextColor;
+    }
+
+    @ColorInt
+    public int getErrorBackgroundColor() {
+        return mErrorBackgroundColor;
+    }
+
+    public boolean isErrorShakeEnabled() {
+        return mErrorShakeEnabled;
+    }
+
+    @ColorInt
+    public int getSuccessColor() {
+        return mSuccessColor;
+    }
+
+    @ColorInt
+    public int getSuccessTextColor() {
+        return mSuccessTextColor;
+    }
+
+    @ColorInt
+    public int getSuccessBackgroundColor() {
+        return mSuccessBackgroundColor;
+    }
+
+    public boolean isSuccessEnabled() {
+        return mSuccessEnabled;
+    }
+
+    public boolean isSuccessAnimationEnabled() {
+        return mSuccessAnimationEnabled;
+    }
+
+    /**
+     * Builder for {@link PinEntryViewConfig}. Builders returned by
+     * {@link PinEntryView#edit()} can also {@link #apply()} the result to that view.
+     */
+    public static final class Builder {
+        private PinEntryView mTarget;
+
+        private int mViewType;
+        private int mGravity;
+        private int mItemCount;
+        private int mItemWidth;
+        private int mItemHeight;
+        private int mItemRadius;
+        private int mItemSpacing;
+        private int mLineWidth;
+        private ColorStateList mLineColors;
+        private int mCursorColor;
+        private int mCursorWidth;
+        private boolean mCursorVisible;
+        private boolean mHideLineWhenFilled;
+        private boolean mAnimationEnabled;
+        private boolean mPasswordHidden;
+        private int mItemBackgroundColor;
+        private int mErrorColor;
+        private int mErrorTextColor;
+        private int mErrorBackgroundColor;
+        private boolean mErrorShakeEnabled;
+        private int mSuccessColor;
+        private int mSuccessTextColor;
+        private int mSuccessBackgroundColor;
+        private boolean mSuccessEnabled;
+        private boolean mSuccessAnimationEnabled;
+
+        private Builder() {
+        }
+
+        /**
+         * Creates a builder initialized with the values of a config.
+         *
+         * @param config The config to copy
+         */
+        public Builder(@NonNull PinEntryViewConfig config) {
+            mViewType = config.mViewType;
+            mGravity = config.mGravity;
+            mItemCount = config.mItemCount;
+            mItemWidth = config.mItemWidth;
+            mItemHeight = config.mItemHeight;
+            mItemRadius = config.mItemRadius;
+            mItemSpacing = config.mItemSpacing;
+            mLineWidth = config.mLineWidth;
+            mLineColors = config.mLineColors;
+            mCursorColor = config.mCursorColor;
+            mCursorWidth = config.mCursorWidth;
+            mCursorVisible = config.mCursorVisible;
+            mHideLineWhenFilled = config.mHideLineWhenFilled;
+            mAnimationEnabled = config.mAnimationEnabled;
+            mPasswordHidden = config.mPasswordHidden;
+            mItemBackgroundColor = config.mItemBackgroundColor;
+            mErrorColor = config.mErrorColor;
+            mErrorTextColor = config.mErrorTextColor;
+            mErrorBackgroundColor = config.mErrorBackgroundColor;
+            mErrorShakeEnabled = config.mErrorShakeEnabled;
+            mSuccessColor = config.mSuccessColor;
+            mSuccessTextColor = config.mSuccessTextColor;
+            mSuccessBackgroundColor = config.mSuccessBackgroundColor;
+            mSuccessEnabled = config.mSuccessEnabled;
+            mSuccessAnimationEnabled = config.mSuccessAnimationEnabled;
+        }
+
+        /**
+         * Creates a builder that applies to a view, see {@link PinEntryView#edit()}.
+         */
+        Builder(@NonNull PinEntryView target) {
+            this(from(target));
+            mTarget = target;
+        }
+
+        @NonNull
+        public Builder setViewType(int viewType) {
+            mViewType = viewType;
+            return this;
+        }
+
+        @NonNull
+        public Builder setGravity(int gravity) {
+            mGravity = gravity;
+            return this;
+        }
+
+        @NonNull
+        public Builder setItemCount(int itemCount) {
+            mItemCount = itemCount;
+            return this;
+        }
+
+        @NonNull
+        public Builder setItemWidth(@Px int itemWidth) {
+            mItemWidth = itemWidth;
+            return this;
+        }
+
+        @NonNull
+        public Builder setItemHeight(@Px int itemHeight) {
+            mItemHeight = itemHeight;
+            return this;
+        }
+
+        @NonNull
+        public Builder setItemRadius(@Px int itemRadius) {
+            mItemRadius = itemRadius;
+            return this;
+        }
+
+        @NonNull
+        public Builder setItemSpacing(@Px int itemSpacing) {
+            mItemSpacing = itemSpacing;
+            return this;
+        }
+
+        @NonNull
+        public Builder setLineWidth(@Px int lineWidth) {
+            mLineWidth = lineWidth;
+            return this;
+        }
+
+        @NonNull
+        public Builder setLineColor(@ColorInt int lineColor) {
+            mLineColors = ColorStateList.valueOf(lineColor);
+            return this;
+        }
+
+        @NonNull
+        public Builder setLineColor(ColorStateList lineColors) {
+            mLineColors = lineColors;
+            return this;
+        }
+
+        @NonNull
+        public Builder setCursorColor(@ColorInt int cursorColor) {
+            mCursorColor = cursorColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder setCursorWidth(@Px int cursorWidth) {
+            mCursorWidth = cursorWidth;
+            return this;
+        }
+
+        @NonNull
+        public Builder setCursorVisible(boolean cursorVisible) {
+            mCursorVisible = cursorVisible;
+            return this;
+        }
+
+        @NonNull
+        public Builder setHideLineWhenFilled(boolean hideLineWhenFilled) {
+            mHideLineWhenFilled = hideLineWhenFilled;
+            return this;
+        }
+
+        @NonNull
+        public Builder setAnimationEnabled(boolean animationEnabled) {
+            mAnimationEnabled = animationEnabled;
+            return this;
+        }
+
+        @NonNull
+        public Builder setPasswordHidden(boolean passwordHidden) {
+            mPasswordHidden = passwordHidden;
+            return this;
+        }
+
+        @NonNull
+        public Builder setItemBackgroundColor(@ColorInt int itemBackgroundColor) {
+            mItemBackgroundColor = itemBackgroundColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder setErrorColor(@ColorInt int errorColor) {
+            mErrorColor = errorColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder setErrorTextColor(@ColorInt int errorTextColor) {
+            mErrorTextColor = errorTextColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder setErrorBackgroundColor(@ColorInt int errorBackgroundColor) {
+            mErrorBackgroundColor = errorBackgroundColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder setErrorShakeEnabled(boolean errorShakeEnabled) {
+            mErrorShakeEnabled = errorShakeEnabled;
+            return this;
+        }
+
+        @NonNull
+        public Builder setSuccessColor(@ColorInt int successColor) {
+            mSuccessColor = successColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder setSuccessTextColor(@ColorInt int successTextColor) {
+            mSuccessTextColor = successTextColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder setSuccessBackgroundColor(@ColorInt int successBackgroundColor) {
+            mSuccessBackgroundColor = successBackgroundColor;
+            return this;
+        }
+
+        @NonNull
+        public Builder setSuccessEnabled(boolean successEnabled) {
+            mSuccessEnabled = successEnabled;
+            return this;
+        }
+
+        @NonNull
+        public Builder setSuccessAnimationEnabled(boolean successAnimationEnabled) {
+            mSuccessAnimationEnabled = successAnimationEnabled;
+            return this;
+        }
+
+        /**
+         * Builds an immutable config from the current values.
+         *
+         * @return The config
+         */
+        @NonNull
+        public PinEntryViewConfig build() {
+            return new PinEntryViewConfig(this);
+        }
+
+        /**
+         * Applies the built config to the view this builder was obtained from.
+         *
+         * @throws IllegalStateException If the builder was not created by {@link PinEntryView#edit()}
+         */
+        public void apply() {
+            if (mTarget == null) {
+                throw new IllegalStateException("Builder is not bound to a view, use PinEntryView.applyConfig()");
+            }
+            mTarget.applyConfig(build());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.os.CancellationSignal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+/**
+ * Verifies a completed PIN off the main thread.
+ * <p>
+ * Set with {@link PinEntryView#setPinVerifier(PinVerifier, java.util.concurrent.Executor)}.
+ * Once the PIN is complete the view runs {@link #verify(char[], CancellationSignal)} on the
+ * given executor and switches to {@link PinViewState.Type#SUCCESS} or
+ * {@link PinViewState.Type#ERROR} with the result. Editing the PIN while verification runs
+ * cancels it and the result is dropped.
+ */
+public interface PinVerifier {
+
+    /**
+     * Verifies a PIN, e.g. by hashing it and comparing against a stored hash.
+     * <p>
+     * Long-running implementations should check {@link CancellationSignal#isCanceled()} or
+     * register a {@link CancellationSignal.OnCancelListener}; the result of a canceled run is
+     * ignored. Throwing {@link android.os.OperationCanceledException} is treated as a
+     * cancellation. Any other runtime exception, e.g. from a KeyStore, is reported through
+     * {@link PinEntryView.OnPinVerifiedListener#onPinVerificationFailed(RuntimeException)};
+     * it is not a wrong PIN and does not count as a failed attempt.
+     *
+     * @param pin The PIN characters. The array is zeroed once this method returns, so copy
+     *            out anything that has to outlive the call
+     * @param signal Canceled when the PIN is edited or the view is detached
+     * @return True if the PIN is correct, false otherwise
+     */
+    @WorkerThread
+    boolean verify(@NonNull char[] pin, @NonNull CancellationSignal signal);
+}
@@ -1,6 +1,5 @@
 package com.rorpheeyah.java.pinentryview;
 
-import android.util.Log;
 import android.view.ActionMode;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -14,25 +13,25 @@ public class PinViewActionModeCallback implements ActionMode.Callback {
 
     @Override
     public boolean onCreateActionMode(ActionMode mode, Menu menu) {
-        Log.v(TAG, "🚫 Action mode creation blocked");
+        PinViewLog.v(TAG, "🚫 Action mode creation blocked");
         return false;
     }
 
     @Override
     public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
-        Log.v(TAG, "🚫 Action mode preparation blocked");
+        PinViewLog.v(TAG, "🚫 Action mode preparation blocked");
         return false;
     }
 
     @Override
     public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
-        Log.v(TAG, "🚫 Action item click blocked");
+        PinViewLog.v(TAG, "🚫 Action item click blocked");
         return false;
     }
 
     @Override
     public void onDestroyActionMode(ActionMode mode) {
         // No action needed
-        Log.v(TAG, "🚫 Action mode destruction ignored");
+        PinViewLog.v(TAG, "🚫 Action mode destruction ignored");
     }
 }
\ No newline at end of file
@@ -1,22 +1,34 @@
 package com.rorpheeyah.java.pinentryview;
 
 import android.content.Context;
-import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.graphics.Color;
+import android.os.Build;
 import android.util.AttributeSet;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.content.res.ResourcesCompat;
+import androidx.core.os.ConfigurationCompat;
 
-import org.jetbrains.annotations.Contract;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Parser for PinEntryView attributes defined in attrs.xml.
  */
 public class PinViewAttributeParser {
     private static final String TAG = "PinViewAttributeParser";
+    private static final int MAX_ENTRIES_PER_THEME = 32;
+
+    // Resolved attributes per theme, released together with the theme
+    private static final WeakHashMap<Resources.Theme, Map<String, PinViewResolvedAttributes>> sCache =
+            new WeakHashMap<>();
+
     private final Context mContext;
 
     /**
@@ -30,6 +42,10 @@ public class PinViewAttributeParser {
 
     /**
      * Parses attributes from XML and applies them to the PinEntryView.
+     * <p>
+     * The resolved values are cached per theme, keyed by style and attribute values, so
+     * identical views inflated later skip {@code obtainStyledAttributes} and get all values
+     * applied in one layout/invalidate batch.
      *
      * @param view The PinEntryView to apply attributes to
      * @param attrs The AttributeSet from XML
@@ -38,249 +54,154 @@ public class PinViewAttributeParser {
     public void parseAttributes(PinEntryView view, AttributeSet attrs, int defStyleAttr) {
         if (attrs == null) return;
 
+        boolean traced = PinViewTrace.begin(PinViewTrace.PARSE_ATTRIBUTES);
+        try {
+            resolve(view, attrs, defStyleAttr).applyTo(view);
+        } finally {
+            PinViewTrace.end(traced);
+        }
+    }
+
+    /**
+     * Resolves the attributes, reusing an earlier result for the same theme, style and
+     * attribute values when there is one.
+     */
+    @VisibleForTesting
+    @NonNull
+    PinViewResolvedAttributes resolve(PinEntryView view, AttributeSet attrs, int defStyleAttr) {
+        Resources.Theme theme = mContext.getTheme();
+        String key = buildCacheKey(attrs, defStyleAttr);
+
+        PinViewResolvedAttributes resolved = getCached(theme, key);
+        if (resolved != null) {
+            PinViewLog.d(TAG, "♻️ Reusing cached attributes");
+            return resolved;
+        }
+
         // Get TypedArray of PinEntryView attributes
         TypedArray a = mContext.obtainStyledAttributes(
                 attrs, R.styleable.PinEntryView, defStyleAttr, 0);
-
         try {
-            // View type (rectangle, line, or none)
-            if (a.hasValue(R.styleable.PinEntryView_viewType)) {
-                int viewType = a.getInt(R.styleable.PinEntryView_viewType, PinEntryView.VIEW_TYPE_RECTANGLE);
-                view.setViewType(viewType);
-                Log.d(TAG, "🔄 Set viewType: " + getViewTypeName(viewType));
-            }
-
-            if (a.hasValue(R.styleable.PinEntryView_pinGravity)) {
-                int gravity = a.getInt(R.styleable.PinEntryView_pinGravity, PinEntryView.GRAVITY_CENTER);
-                view.setPinItemGravity(gravity);
-                Log.d(TAG, "🔄 Set pinGravity: " + gravity);
-            }
-
-            // Item count
-            if (a.hasValue(R.styleable.PinEntryView_itemCount)) {
-                int count = a.getInt(R.styleable.PinEntryView_itemCount, PinEntryView.DEFAULT_COUNT);
-                view.setItemCount(count);
-                Log.d(TAG, "🔢 Set itemCount: " + count);
-            }
-
-            // Item width
-            if (a.hasValue(R.styleable.PinEntryView_itemWidth)) {
-                int width = a.getDimensionPixelSize(R.styleable.PinEntryView_itemWidth,
-                        PinViewUtils.dpToPx(mContext, 48));
-                view.setItemWidth(width);
-                Log.d(TAG, "↔️ Set itemWidth: " + width + "px");
-            }
-
-            // Item height
-            if (a.hasValue(R.styleable.PinEntryView_itemHeight)) {
-                int height = a.getDimensionPixelSize(R.styleable.PinEntryView_itemHeight,
-                        PinViewUtils.dpToPx(mContext, 48));
-                view.setItemHeight(height);
-                Log.d(TAG, "↕️ Set itemHeight: " + height + "px");
-            }
-
-            // Item radius (for rounded corners)
-            if (a.hasValue(R.styleable.PinEntryView_itemRadius)) {
-                int radius = a.getDimensionPixelSize(R.styleable.PinEntryView_itemRadius, 0);
-                view.setItemRadius(radius);
-                Log.d(TAG, "🔘 Set itemRadius: " + radius + "px");
-            }
-
-            // Item spacing
-            if (a.hasValue(R.styleable.PinEntryView_itemSpacing)) {
-                int spacing = a.getDimensionPixelSize(R.styleable.PinEntryView_itemSpacing,
-                        PinViewUtils.dpToPx(mContext, 5));
-                view.setItemSpacing(spacing);
-                Log.d(TAG, "↔️ Set itemSpacing: " + spacing + "px");
-            }
-
-            // Line width
-            if (a.hasValue(R.styleable.PinEntryView_lineWidth)) {
-                int lineWidth = a.getDimensionPixelSize(R.styleable.PinEntryView_lineWidth,
-                        PinViewUtils.dpToPx(mContext, 2));
-                view.setLineWidth(lineWidth);
-                Log.d(TAG, "📏 Set lineWidth: " + lineWidth + "px");
-            }
-
-            // Line color
-            if (a.hasValue(R.styleable.PinEntryView_lineColor)) {
-                if (isColorStateList(a, R.styleable.PinEntryView_lineColor)) {
-                    ColorStateList colorStateList = a.getColorStateList(R.styleable.PinEntryView_lineColor);
-                    view.setLineColor(colorStateList);
-                    Log.d(TAG, "🎨 Set lineColor state list");
-                } else {
-                    int color = a.getColor(R.styleable.PinEntryView_lineColor, Color.BLACK);
-                    view.setLineColor(color);
-                    Log.d(TAG, "🎨 Set lineColor: #" + Integer.toHexString(0xFFFFFF & color));
-                }
-            }
-
-            // Cursor color
-            if (a.hasValue(R.styleable.PinEntryView_cursorColor)) {
-                int color = a.getColor(R.styleable.PinEntryView_cursorColor,
-                        view.getCurrentTextColor());
-                view.setCursorColor(color);
-                Log.d(TAG, "🎨 Set cursorColor: #" + Integer.toHexString(0xFFFFFF & color));
-            }
-
-            // Cursor width
-            if (a.hasValue(R.styleable.PinEntryView_cursorWidth)) {
-                int width = a.getDimensionPixelSize(R.styleable.PinEntryView_cursorWidth,
-                        PinViewUtils.dpToPx(mContext, 2));
-                view.setCursorWidth(width);
-                Log.d(TAG, "📏 Set cursorWidth: " + width + "px");
-            }
-
-            // Hide line when filled
-            if (a.hasValue(R.styleable.PinEntryView_hideLineWhenFilled)) {
-                boolean hide = a.getBoolean(R.styleable.PinEntryView_hideLineWhenFilled, false);
-                view.setHideLineWhenFilled(hide);
-                Log.d(TAG, "🙈 Set hideLineWhenFilled: " + hide);
-            }
-
-            // Auto focus
-            if (a.hasValue(R.styleable.PinEntryView_autoFocus)) {
-                boolean autoFocus = a.getBoolean(R.styleable.PinEntryView_autoFocus, true);
-                view.setAutoFocus(autoFocus);
-                Log.d(TAG, "🔍 Set autoFocus: " + autoFocus);
-            }
-
-            // Animation enabled
-            if (a.hasValue(R.styleable.PinEntryView_animationEnabled)) {
-                boolean enabled = a.getBoolean(R.styleable.PinEntryView_animationEnabled, false);
-                view.setAnimationEnabled(enabled);
-                Log.d(TAG, "🎭 Set animationEnabled: " + enabled);
-            }
-
-            // Password hidden
-            if (a.hasValue(R.styleable.PinEntryView_passwordHidden)) {
-                boolean hidden = a.getBoolean(R.styleable.PinEntryView_passwordHidden,
-                        PinViewUtils.isPasswordInputType(view.getInputType()));
-                view.setPasswordHidden(hidden);
-                Log.d(TAG, "🙈 Set passwordHidden: " + hidden);
-            }
-
-            // Error color
-            if (a.hasValue(R.styleable.PinEntryView_errorColor)) {
-                int errorColor = a.getColor(R.styleable.PinEntryView_errorColor, Color.RED);
-                view.setErrorColor(errorColor);
-                Log.d(TAG, "🎨 Set errorColor: #" + Integer.toHexString(0xFFFFFF & errorColor));
-            }
-
-            // Error text color
-            if (a.hasValue(R.styleable.PinEntryView_errorTextColor)) {
-                int errorTextColor = a.getColor(R.styleable.PinEntryView_errorTextColor, view.getCurrentTextColor());
-                view.setErrorTextColor(errorTextColor);
-                Log.d(TAG, "🎨 Set errorTextColor: #" + Integer.toHexString(0xFFFFFF & errorTextColor));
-            }
-
-            // Error shake enabled
-            if (a.hasValue(R.styleable.PinEntryView_errorShakeEnabled)) {
-                boolean shakeEnabled = a.getBoolean(R.styleable.PinEntryView_errorShakeEnabled, false);
-                view.setErrorShakeEnabled(shakeEnabled);
-                Log.d(TAG, "🔄 Set errorShakeEnabled: " + shakeEnabled);
-            }
-
-            // Success color
-            if (a.hasValue(R.styleable.PinEntryView_successColor)) {
-                int successColor = a.getColor(R.styleable.PinEntryView_successColor, Color.GREEN);
-                view.setSuccessColor(successColor);
-                Log.d(TAG, "🎨 Set successColor: #" + Integer.toHexString(0xFFFFFF & successColor));
-            }
-
-            // Success text color
-            if (a.hasValue(R.styleable.PinEntryView_successTextColor)) {
-                int successTextColor = a.getColor(R.styleable.PinEntryView_successTextColor, view.getCurrentTextColor());
-                view.setSuccessTextColor(successTextColor);
-                Log.d(TAG, "🎨 Set successTextColor: #" + Integer.toHexString(0xFFFFFF & successTextColor));
-            }
-
-            // Success enabled
-            if (a.hasValue(R.styleable.PinEntryView_successEnabled)) {
-                boolean successEnabled = a.getBoolean(R.styleable.PinEntryView_successEnabled, false);
-                view.setSuccessEnabled(successEnabled);
-                Log.d(TAG, "✅ Set successEnabled: " + successEnabled);
-            }
-
-            // Success animation enabled
-            if (a.hasValue(R.styleable.PinEntryView_successAnimationEnabled)) {
-                boolean successAnimEnabled = a.getBoolean(R.styleable.PinEntryView_successAnimationEnabled, false);
-                view.setSuccessAnimationEnabled(successAnimEnabled);
-                Log.d(TAG, "✅ Set successAnimationEnabled: " + successAnimEnabled);
-            }
-
-            // Item background color
-            if (a.hasValue(R.styleable.PinEntryView_itemBackgroundColor)) {
-                int backgroundColor = a.getColor(R.styleable.PinEntryView_itemBackgroundColor, Color.TRANSPARENT);
-                view.setItemBackgroundColor(backgroundColor);
-                Log.d(TAG, "🎨 Set itemBackgroundColor: #" + Integer.toHexString(0xFFFFFF & backgroundColor));
-            }
-
-            // Error background color
-            if (a.hasValue(R.styleable.PinEntryView_errorBackgroundColor)) {
-                int errorBackgroundColor = a.getColor(R.styleable.PinEntryView_errorBackgroundColor, Color.RED);
-                view.setErrorBackgroundColor(errorBackgroundColor);
-                Log.d(TAG, "🎨 Set errorBackgroundColor: #" + Integer.toHexString(0xFFFFFF & errorBackgroundColor));
-            }
-
-            // Success background color
-            if (a.hasValue(R.styleable.PinEntryView_successBackgroundColor)) {
-                int successBackgroundColor = a.getColor(R.styleable.PinEntryView_successBackgroundColor, Color.GREEN);
-                view.setSuccessBackgroundColor(successBackgroundColor);
-                Log.d(TAG, "🎨 Set successBackgroundColor: #" + Integer.toHexString(0xFFFFFF & successBackgroundColor));
-            }
-
-        } catch (Exception e) {
-            Log.e(TAG, "⚠️ Error parsing attributes", e);
+            // Also process standard Android attributes (textColor, hint, etc.)
+            resolved = new PinViewResolvedAttributes(mContext, a, view.getCurrentTextColor(),
+                    view.getInputType(), parseStandardAttributes(attrs));
         } finally {
             a.recycle();
         }
 
-        // Also process standard Android attributes (textColor, hint, etc.)
-        parseStandardAttributes(view, attrs);
+        if (resolved.complete) {
+            putCached(theme, key, resolved);
+        }
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🔍 Attributes parsing completed, mask: 0x" + Integer.toHexString(resolved.mask));
+        }
+        return resolved;
+    }
 
-        Log.d(TAG, "🔍 Attributes parsing completed");
+    /**
+     * Builds the cache key for an AttributeSet: the default style, explicit style,
+     * the configuration values resources depend on, and every relevant attribute value.
+     * <p>
+     * A theme can outlive a configuration change (an activity handling
+     * {@code configChanges} itself), so every configuration field that selects a resource
+     * qualifier, from {@code -fr} and {@code -mcc310} to {@code -land} and
+     * {@code -sw600dp}, is part of the key.
+     */
+    @NonNull
+    private String buildCacheKey(AttributeSet attrs, int defStyleAttr) {
+        Configuration config = mContext.getResources().getConfiguration();
+        StringBuilder key = new StringBuilder(192)
+                .append(defStyleAttr).append('/')
+                .append(attrs.getStyleAttribute()).append('/')
+                .append(ConfigurationCompat.getLocales(config).toLanguageTags()).append('/')
+                .append(config.mcc).append('-').append(config.mnc).append('/')
+                .append(config.densityDpi).append('/')
+                .append(config.uiMode).append('/')
+                .append(Float.floatToIntBits(config.fontScale)).append('/')
+                .append(config.orientation).append('/')
+                .append(config.screenLayout).append('/')
+                .append(config.getLayoutDirection()).append('/')
+                .append(config.screenWidthDp).append('x').append(config.screenHeightDp).append('/')
+                .append(config.smallestScreenWidthDp).append('/')
+                .append(config.touchscreen).append('/')
+                .append(config.keyboard).append('-').append(config.keyboardHidden)
+                .append('-').append(config.hardKeyboardHidden).append('/')
+                .append(config.navigation).append('-').append(config.navigationHidden);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            key.append('/').append(config.colorMode);
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            key.append('/').append(config.fontWeightAdjustment);
+        }
+
+        for (int i = 0; i < attrs.getAttributeCount(); i++) {
+            int nameRes = attrs.getAttributeNameResource(i);
+            if (isCacheKeyAttribute(nameRes)) {
+                key.append(';').append(nameRes).append('=').append(attrs.getAttributeValue(i));
+            }
+        }
+        return key.toString();
     }
 
     /**
-     * Checks if an attribute value is a ColorStateList rather than a simple color.
+     * Checks if an attribute can change the resolved result. Attributes such as ids and
+     * layout params are left out so that sibling views share a cache entry.
      */
-    private boolean isColorStateList(TypedArray a, int index) {
-        try {
-            // If getColorStateList doesn't throw an exception and returns non-null,
-            // it's a ColorStateList
-            return a.getColorStateList(index) != null;
-        } catch (Exception e) {
+    private static boolean isCacheKeyAttribute(int nameRes) {
+        if (nameRes == 0) {
             return false;
         }
+        if (nameRes == android.R.attr.textColor || nameRes == android.R.attr.cursorVisible
+                || nameRes == android.R.attr.inputType || nameRes == android.R.attr.textAppearance) {
+            return true;
+        }
+        for (int attr : R.styleable.PinEntryView) {
+            if (attr == nameRes) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static PinViewResolvedAttributes getCached(Resources.Theme theme, String key) {
+        synchronized (sCache) {
+            Map<String, PinViewResolvedAttributes> entries = sCache.get(theme);
+            return entries != null ? entries.get(key) : null;
+        }
+    }
+
+    private static void putCached(Resources.Theme theme, String key, PinViewResolvedAttributes resolved) {
+        synchronized (sCache) {
+            Map<String, PinViewResolvedAttributes> entries = sCache.get(theme);
+            if (entries == null) {
+                entries = new HashMap<>();
+                sCache.put(theme, entries);
+            }
+            if (entries.size() < MAX_ENTRIES_PER_THEME) {
+                entries.put(key, resolved);
+            }
+        }
     }
 
     /**
-     * Gets a human-readable name for a view type value.
+     * Drops every cached attribute resolution. Entries are otherwise released together
+     * with their theme.
      */
-    @NonNull
-    @Contract(pure = true)
-    private String getViewTypeName(int viewType) {
-        switch (viewType) {
-            case PinEntryView.VIEW_TYPE_RECTANGLE:
-                return "rectangle";
-            case PinEntryView.VIEW_TYPE_LINE:
-                return "line";
-            case PinEntryView.VIEW_TYPE_CIRCLE:
-                    return "circle";
-            case PinEntryView.VIEW_TYPE_NONE:
-                return "none";
-            default:
-                return "unknown (" + viewType + ")";
+    public static void clearCache() {
+        synchronized (sCache) {
+            sCache.clear();
         }
     }
 
     /**
      * Parses standard Android attributes
      */
-    private void parseStandardAttributes(PinEntryView view, AttributeSet attrs) {
+    @NonNull
+    private PinViewResolvedAttributes.Standard parseStandardAttributes(AttributeSet attrs) {
         // Android namespace prefix for qualified names
         final String ANDROID_NS_PREFIX = "android:";
+        PinViewResolvedAttributes.Standard standard = new PinViewResolvedAttributes.Standard();
 
         for (int i = 0; i < attrs.getAttributeCount(); i++) {
             String qualifiedName = attrs.getAttributeName(i);
@@ -297,33 +218,33 @@ public class PinViewAttributeParser {
                         break;
                     case "textColor":
                         // Cursor color often inherits text color if not explicitly set
-                        if (!view.isCursorColorSet()) {
-                            try {
-                                if (value.startsWith("#")) {
-                                    int color = Color.parseColor(value);
-                                    view.setCursorColor(color);
-                                    Log.d(TAG, "🎨 Cursor color set from textColor attribute");
-                                } else if (value.startsWith("@")) {
-                                    int resId = parseResourceId(value);
-                                    if (resId != 0) {
-                                        int color = ResourcesCompat.getColor(
-                                                mContext.getResources(), resId, mContext.getTheme());
-                                        view.setCursorColor(color);
-                                        Log.d(TAG, "🎨 Cursor color set from textColor resource");
-                                    }
+                        try {
+                            if (value.startsWith("#")) {
+                                standard.textCursorColor = Color.parseColor(value);
+                                standard.hasTextCursorColor = true;
+                                PinViewLog.d(TAG, "🎨 Cursor color resolved from textColor attribute");
+                            } else if (value.startsWith("@")) {
+                                int resId = parseResourceId(value);
+                                if (resId != 0) {
+                                    standard.textCursorColor = ResourcesCompat.getColor(
+                                            mContext.getResources(), resId, mContext.getTheme());
+                                    standard.hasTextCursorColor = true;
+                                    PinViewLog.d(TAG, "🎨 Cursor color resolved from textColor resource");
                                 }
-                            } catch (Exception e) {
-                                Log.e(TAG, "⚠️ Error parsing textColor", e);
                             }
+                        } catch (Exception e) {
+                            PinViewLog.e(TAG, "⚠️ Error parsing textColor", e);
                         }
                         break;
                     case "cursorVisible":
-                        view.setCursorVisible("true".equals(value));
-                        Log.d(TAG, "👁️ Cursor visibility set from attribute");
+                        standard.cursorVisible = "true".equals(value);
+                        standard.hasCursorVisible = true;
+                        PinViewLog.d(TAG, "👁️ Cursor visibility resolved from attribute");
                         break;
                 }
             }
         }
+        return standard;
     }
 
     /**
@@ -336,15 +257,8 @@ public class PinViewAttributeParser {
             }
             return 0;
         } catch (NumberFormatException e) {
-            Log.e(TAG, "⚠️ Error parsing resource ID: " + value, e);
+            PinViewLog.e(TAG, "⚠️ Error parsing resource ID: " + value, e);
             return 0;
         }
     }
-
-    /**
-     * Add this helper method to PinEntryView to check if cursor color has been set
-     */
-    private boolean isCursorColorSet(PinEntryView view) {
-        return view.isCursorColorSet();
-    }
-}
\ No newline at end of file
+}
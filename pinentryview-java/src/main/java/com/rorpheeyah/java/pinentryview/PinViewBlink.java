@@ -1,15 +1,16 @@
 package com.rorpheeyah.java.pinentryview;
 
-import android.util.Log;
 
 import java.lang.ref.WeakReference;
 
 /**
  * Class that manages cursor blinking for PinEntryView.
+ * <p>
+ * Ticks come from the shared {@link PinViewBlinkClock} rather than a per-view
+ * Runnable, so all focused instances blink in phase from a single frame callback.
  */
-public class PinViewBlink implements Runnable {
+public class PinViewBlink {
     private static final String TAG = "PinViewBlink";
-    private static final int BLINK_TIMEOUT = 500; // milliseconds
 
     private boolean mCancelled;
     private final WeakReference<PinEntryView> viewReference;
@@ -21,36 +22,68 @@ public class PinViewBlink implements Runnable {
      */
     public PinViewBlink(PinEntryView view) {
         this.viewReference = new WeakReference<>(view);
-        Log.v(TAG, "⏱️ Blink manager created");
+        PinViewLog.v(TAG, "⏱️ Blink manager created");
     }
 
-    @Override
-    public void run() {
+    /**
+     * Starts following the shared blink clock, adopting its current phase.
+     */
+    public void start() {
         if (mCancelled) {
-            Log.v(TAG, "⏱️ Blink cancelled, skipping");
+            PinViewLog.v(TAG, "⏱️ Blink cancelled, skipping");
             return;
         }
 
         PinEntryView view = viewReference.get();
         if (view == null) {
-            // View has been garbage collected, stop blinking
-            Log.v(TAG, "⏱️ View reference lost, stopping blink");
             return;
         }
 
-        try {
-            view.removeCallbacks(this);
+        PinViewBlinkClock clock = PinViewBlinkClock.getInstance();
+        clock.register(this);
+        view.invalidateCursor(clock.isCursorVisible());
+    }
+
+    /**
+     * Stops following the shared blink clock.
+     */
+    public void stop() {
+        PinViewBlinkClock.getInstance().unregister(this);
+    }
 
+    /**
+     * Called by the shared clock on every blink period.
+     *
+     * @param cursorVisible The new shared cursor phase
+     * @return True to keep receiving ticks, false to be unregistered
+     */
+    boolean onTick(boolean cursorVisible) {
+        if (mCancelled) {
+            return false;
+        }
+
+        PinEntryView view = viewReference.get();
+        if (view == null) {
+            // View has been garbage collected, stop blinking
+            PinViewLog.v(TAG, "⏱️ View reference lost, stopping blink");
+            return false;
+        }
+
+        try {
             boolean shouldBlink = view.isCursorVisible() && view.isFocused();
-            if (shouldBlink) {
-                boolean blinkState = !view.drawCursor();
-                view.invalidateCursor(blinkState);
-                view.postDelayed(this, BLINK_TIMEOUT);
-                Log.v(TAG, "⏱️ Blinking cursor: " + (blinkState ? "visible" : "hidden"));
+            if (!shouldBlink) {
+                view.invalidateCursor(false);
+                return false;
             }
+            view.onBlinkTick(cursorVisible);
+            if (PinViewLog.DBG) {
+                PinViewLog.v(TAG, "⏱️ Blinking cursor: " + (cursorVisible ? "visible" : "hidden"));
+            }
+            return true;
         } catch (Exception e) {
             // Handle any unexpected exceptions to prevent crashes
-            Log.e(TAG, "⚠️ Error in blink animation", e);
+            PinViewLog.e(TAG, "⚠️ Error in blink animation", e);
+            return false;
         }
     }
 
@@ -59,12 +92,9 @@ public class PinViewBlink implements Runnable {
      */
     public void cancel() {
         if (!mCancelled) {
-            PinEntryView view = viewReference.get();
-            if (view != null) {
-                view.removeCallbacks(this);
-                Log.v(TAG, "⏱️ Blink cycle cancelled");
-            }
+            stop();
             mCancelled = true;
+            PinViewLog.v(TAG, "⏱️ Blink cycle cancelled");
         }
     }
 
@@ -73,6 +103,6 @@ public class PinViewBlink implements Runnable {
      */
     public void uncancel() {
         mCancelled = false;
-        Log.v(TAG, "⏱️ Blink cycle restarted");
+        PinViewLog.v(TAG, "⏱️ Blink cycle restarted");
     }
 }
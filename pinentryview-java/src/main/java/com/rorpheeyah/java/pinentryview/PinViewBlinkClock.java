@@ -0,0 +1,151 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.view.Choreographer;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+
+/**
+ * Process-wide cursor blink clock shared by every PinEntryView.
+ * <p>
+ * A single {@link Choreographer} frame callback toggles the cursor phase and drives all
+ * registered {@link PinViewBlink} instances from the same tick, so several fields on a
+ * screen blink in phase and wake the main thread once per period. The callback is
+ * removed entirely as soon as no instance is registered.
+ */
+@MainThread
+public final class PinViewBlinkClock implements Choreographer.FrameCallback {
+    private static final String TAG = "PinViewBlinkClock";
+    static final long BLINK_TIMEOUT = 500; // milliseconds
+
+    private static PinViewBlinkClock sInstance;
+
+    private final ArrayList<PinViewBlink> mBlinks = new ArrayList<>();
+    private boolean mScheduled;
+    private boolean mCursorVisible = true;
+
+    /**
+     * Gets the shared blink clock. Must be called on the main thread.
+     *
+     * @return The singleton instance
+     */
+    @NonNull
+    public static PinViewBlinkClock getInstance() {
+        if (sInstance == null) {
+            sInstance = new PinViewBlinkClock();
+        }
+        return sInstance;
+    }
+
+    private PinViewBlinkClock() {
+    }
+
+    /**
+     * Stops and discards the shared clock, so the next {@link #getInstance()} starts clean.
+     * <p>
+     * For tests, where each test runs against a fresh main Looper and Choreographer and a
+     * clock left over from a previous test would hold stale registrations.
+     */
+    @VisibleForTesting
+    static void reset() {
+        if (sInstance != null) {
+            sInstance.mBlinks.clear();
+            sInstance.stop();
+            sInstance = null;
+        }
+    }
+
+    /**
+     * Gets the current shared cursor phase.
+     *
+     * @return True if cursors should currently be drawn, false otherwise
+     */
+    public boolean isCursorVisible() {
+        return mCursorVisible;
+    }
+
+    /**
+     * Registers a blink instance and starts the clock if needed.
+     *
+     * @param blink The blink instance to drive
+     */
+    void register(@NonNull PinViewBlink blink) {
+        if (!mBlinks.contains(blink)) {
+            mBlinks.add(blink);
+            if (PinViewLog.DBG) {
+                PinViewLog.v(TAG, "⏱️ Registered blink, active: " + mBlinks.size());
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * Restarts the shared phase visible, with the next tick one full period away, like
+     * the framework cursor after typing or focusing. Registered instances stay in phase
+     * with each other and the field that was just edited doesn't start hidden.
+     */
+    void restartPhase() {
+        mCursorVisible = true;
+        if (mScheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            mScheduled = false;
+        }
+        schedule();
+    }
+
+    /**
+     * Unregisters a blink instance and stops the clock once none are left.
+     *
+     * @param blink The blink instance to stop driving
+     */
+    void unregister(@NonNull PinViewBlink blink) {
+        if (mBlinks.remove(blink) && mBlinks.isEmpty()) {
+            stop();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mScheduled = false;
+        mCursorVisible = !mCursorVisible;
+
+        // Iterate backwards so that finished instances can be dropped in place
+        for (int i = mBlinks.size() - 1; i >= 0; i--) {
+            PinViewBlink blink = mBlinks.get(i);
+            if (!blink.onTick(mCursorVisible)) {
+                mBlinks.remove(i);
+            }
+        }
+
+        if (mBlinks.isEmpty()) {
+            stop();
+        } else {
+            schedule();
+        }
+    }
+
+    /**
+     * Posts the next tick if one is not already pending.
+     */
+    private void schedule() {
+        if (!mScheduled && !mBlinks.isEmpty()) {
+            Choreographer.getInstance().postFrameCallbackDelayed(this, BLINK_TIMEOUT);
+            mScheduled = true;
+        }
+    }
+
+    /**
+     * Removes the pending tick, if any.
+     */
+    private void stop() {
+        if (mScheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            mScheduled = false;
+            PinViewLog.v(TAG, "⏱️ Blink clock stopped");
+        }
+        mCursorVisible = true;
+    }
+}
@@ -5,7 +5,6 @@ import android.graphics.drawable.Drawable;
 import android.graphics.drawable.ShapeDrawable;
 import android.graphics.drawable.shapes.OvalShape;
 import android.graphics.drawable.shapes.RectShape;
-import android.util.Log;
 
 import androidx.annotation.ColorInt;
 
@@ -15,6 +14,24 @@ import androidx.annotation.ColorInt;
 public class PinViewDrawableFactory {
     private static final String TAG = PinViewDrawableFactory.class.getSimpleName();
 
+    private static volatile Drawable sInvisibleDrawable;
+
+    /**
+     * Gets the process-wide invisible drawable used for the text cursor and selection
+     * handles. It draws nothing and has no size, so a single instance can safely be
+     * shared by every view.
+     *
+     * @return The shared invisible drawable
+     */
+    public static Drawable getInvisibleDrawable() {
+        Drawable drawable = sInvisibleDrawable;
+        if (drawable == null) {
+            drawable = createInvisibleDrawable();
+            sInvisibleDrawable = drawable;
+        }
+        return drawable;
+    }
+
     /**
      * Creates an invisible drawable with zero dimensions and alpha.
      * Used for hiding text cursor and selection handles.
@@ -26,7 +43,7 @@ public class PinViewDrawableFactory {
         drawable.setIntrinsicWidth(0);
         drawable.setIntrinsicHeight(0);
         drawable.setAlpha(0);
-        Log.v(TAG, "🎨 Created invisible drawable");
+        PinViewLog.v(TAG, "🎨 Created invisible drawable");
         return drawable;
     }
 
@@ -42,7 +59,7 @@ public class PinViewDrawableFactory {
         drawable.getPaint().setColor(color);
         drawable.setIntrinsicWidth((int) size);
         drawable.setIntrinsicHeight((int) size);
-        Log.v(TAG, "🎨 Created circle drawable");
+        PinViewLog.v(TAG, "🎨 Created circle drawable");
         return drawable;
     }
 
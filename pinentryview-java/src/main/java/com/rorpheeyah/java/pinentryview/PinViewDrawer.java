@@ -6,10 +6,13 @@ import android.graphics.Path;
 import android.graphics.PointF;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
+import android.os.Build;
 import android.text.TextPaint;
 import android.text.TextUtils;
-import android.util.Log;
+
+import java.util.Arrays;
 
 /**
  * Handles drawing operations for the PinEntryView.
@@ -17,17 +20,57 @@ import android.util.Log;
  */
 public class PinViewDrawer {
     private static final String TAG = PinViewDrawer.class.getSimpleName();
-    private static final int[] HIGHLIGHT_STATES = new int[]{ android.R.attr.state_selected };
+    private static final int[] HIGHLIGHT_STATES = PinViewPalette.HIGHLIGHT_STATES;
+
+    // Layout cache stride: left, top, right, bottom, centerX, centerY per item
+    private static final int GEOMETRY_STRIDE = 6;
+    private static final int LEFT = 0;
+    private static final int TOP = 1;
+    private static final int RIGHT = 2;
+    private static final int BOTTOM = 3;
+    private static final int CENTER_X = 4;
+    private static final int CENTER_Y = 5;
+
+    // Per-item display list key: every input that changes what an item records
+    private static final int KEY_SIZE = 17;
 
     private final PinEntryView mView;
     private final Paint mPaint;
     private final TextPaint mAnimatorTextPaint;
+    // Scratch paint for items in the staggered bulk reveal
+    private final TextPaint mRevealTextPaint = new TextPaint();
     private final Rect mTextRect;
     private final RectF mItemBorderRect;
-    private final RectF mItemLineRect;
     private final Path mPath;
     private final PointF mItemCenterPoint;
 
+    private final PinViewPathCache mPathCache;
+    private final PinViewGlyphCache mGlyphCache;
+    private final PinViewMaskCache mMaskCache;
+    private boolean mMaskBitmapEnabled;
+
+    // Colors resolved for the frame being drawn
+    private PinViewPalette mPalette;
+
+    // Reused per frame so that drawing never allocates
+    private final ColorDrawable mColorBackground;
+    private final char[] mGlyph;
+
+    // Precomputed item geometry, rebuilt only when layout inputs change
+    private float[] mItemGeometry = new float[0];
+    private boolean mLayoutDirty = true;
+    private int mLayoutWidth = -1;
+    private int mLayoutScrollX;
+    private int mLayoutScrollY;
+    private int mLayoutGeneration;
+
+    // Optional per-item RenderNode recording (API 29+)
+    private boolean mDisplayListsEnabled;
+    private PinViewItemDisplayLists mDisplayLists;
+    private int[] mItemKeys = new int[0];
+    private final int[] mScratchKey = new int[KEY_SIZE];
+    private int mContentGeneration;
+
     /**
      * Creates a new PinViewDrawer.
      *
@@ -41,10 +84,14 @@ public class PinViewDrawer {
         mAnimatorTextPaint = animatorTextPaint;
         mTextRect = new Rect();
         mItemBorderRect = new RectF();
-        mItemLineRect = new RectF();
         mPath = new Path();
         mItemCenterPoint = new PointF();
-        Log.v(TAG, "🎨 PinViewDrawer initialized");
+        mPathCache = new PinViewPathCache(view);
+        mGlyphCache = new PinViewGlyphCache();
+        mMaskCache = new PinViewMaskCache();
+        mColorBackground = new ColorDrawable();
+        mGlyph = new char[1];
+        PinViewLog.v(TAG, "🎨 PinViewDrawer initialized");
     }
 
     /**
@@ -54,134 +101,273 @@ public class PinViewDrawer {
      */
     public void drawPinView(Canvas canvas) {
         try {
+            ensureLayout();
             int highlightIdx = mView.getLength();
-            PinViewState.Type currentOverallState = mView.getState();
+            PinViewPalette palette = mView.getPalette();
+            mPalette = palette;
 
+            PinViewItemDisplayLists displayLists = getDisplayLists(canvas);
             for (int i = 0; i < mView.getItemCount(); i++) {
                 boolean highlight = mView.isFocused() && highlightIdx == i;
-                int itemLineColor;
-
-                // Determine the line color based on overall state and highlight
-                if (currentOverallState == PinViewState.Type.ERROR) {
-                    itemLineColor = mView.getStateLineColor(PinViewState.Type.ERROR);
-                    // If error color is not set for the state, fall back to default error or normal highlight logic
-                    if (itemLineColor == -1) { // Assuming -1 means not set
-                        itemLineColor = highlight ? mView.getLineColorForState(HIGHLIGHT_STATES) : mView.getLineColors().getDefaultColor();
-                    }
-                } else if (currentOverallState == PinViewState.Type.SUCCESS) {
-                    itemLineColor = mView.getStateLineColor(PinViewState.Type.SUCCESS);
-                    // If success color is not set, fall back
-                    if (itemLineColor == -1) {
-                        itemLineColor = highlight ? mView.getLineColorForState(HIGHLIGHT_STATES) : mView.getLineColors().getDefaultColor();
-                    }
-                } else {
-                    // Normal state: use focused/unfocused colors
-                    itemLineColor = highlight ?
-                            mView.getLineColorForState(HIGHLIGHT_STATES) :
-                            mView.getLineColors().getColorForState(mView.getDrawableState(), mView.getLineColors().getDefaultColor());
-                }
-                mPaint.setColor(itemLineColor);
-
-                updateItemRectF(i);
-                updateCenterPoint();
-
-                int saveCount = canvas.save();
-                try {
-                    if (mView.getViewType() == PinEntryView.VIEW_TYPE_RECTANGLE) {
-                        updatePinBoxPath(i);
-                        canvas.clipPath(mPath);
-                    } else if (mView.getViewType() == PinEntryView.VIEW_TYPE_CIRCLE) {
-                        Path circlePath = new Path();
-                        float cx = mItemCenterPoint.x;
-                        float cy = mItemCenterPoint.y;
-                        float radius = Math.min(mItemBorderRect.width() / 2, mItemBorderRect.height() / 2);
-                        circlePath.addCircle(cx, cy, radius, Path.Direction.CW);
-                        canvas.clipPath(circlePath);
-                    }
-                    drawItemBackground(canvas, highlight);
-                } catch (Exception e) {
-                    Log.e(TAG, "⚠️ Error clipping path or drawing background", e);
-                } finally {
-                    canvas.restoreToCount(saveCount);
-                }
+                int itemLineColor = palette.getLineColor(highlight);
 
-                if (highlight) {
-                    drawCursor(canvas);
-                }
+                loadItemGeometry(i);
 
-                if (mView.getViewType() == PinEntryView.VIEW_TYPE_RECTANGLE) {
-                    drawPinBox(canvas, i);
-                } else if (mView.getViewType() == PinEntryView.VIEW_TYPE_LINE) {
-                    drawPinLine(canvas, i);
-                } else if (mView.getViewType() == PinEntryView.VIEW_TYPE_CIRCLE) {
-                    drawPinCircle(canvas, i);
-                }
-
-                if (mView.isDebug()) {
-                    drawAnchorLine(canvas);
-                }
-
-                String transformed = mView.getTransformedText();
-                if (transformed != null && transformed.length() > i) {
-                    if (mView.getTransformationMethod() == null && mView.isPasswordHidden()) {
-                        drawCircle(canvas, i);
-                    } else {
-                        drawText(canvas, i);
-                    }
-                } else if (mView.getHint() != null &&
-                        !TextUtils.isEmpty(mView.getHint())) {
-                    drawHint(canvas, i);
+                if (displayLists != null) {
+                    drawItemDisplayList(canvas, displayLists, i, highlight, itemLineColor);
+                } else {
+                    drawItem(canvas, i, highlight, itemLineColor);
                 }
             }
 
             // Highlight the next item (the one that will receive input)
             if (mView.isFocused() && mView.getLength() != mView.getItemCount()) {
                 int index = mView.getLength();
-                updateItemRectF(index);
-                updateCenterPoint();
-
-                int nextItemHighlightColor;
-                if (currentOverallState == PinViewState.Type.ERROR) {
-                    nextItemHighlightColor = mView.getStateLineColor(PinViewState.Type.ERROR);
-                    if (nextItemHighlightColor == -1)
-                        nextItemHighlightColor = mView.getLineColorForState(HIGHLIGHT_STATES);
-                } else if (currentOverallState == PinViewState.Type.SUCCESS) {
-                    nextItemHighlightColor = mView.getStateLineColor(PinViewState.Type.SUCCESS);
-                    if (nextItemHighlightColor == -1)
-                        nextItemHighlightColor = mView.getLineColorForState(HIGHLIGHT_STATES);
-                } else {
-                    nextItemHighlightColor = mView.getLineColorForState(HIGHLIGHT_STATES);
-                }
+                loadItemGeometry(index);
+
+                int nextItemHighlightColor = palette.getHighlightLineColor();
                 mPaint.setColor(nextItemHighlightColor);
 
                 if (mView.getViewType() == PinEntryView.VIEW_TYPE_RECTANGLE) {
                     try {
-                        updatePinBoxPath(index);
                         drawPinBox(canvas, index);
                     } catch (Exception e) {
-                        Log.e(TAG, "⚠️ Error highlighting next rectangle item", e);
+                        PinViewLog.e(TAG, "⚠️ Error highlighting next rectangle item", e);
                     }
                 } else if (mView.getViewType() == PinEntryView.VIEW_TYPE_CIRCLE) {
                     try {
                         drawPinCircle(canvas, index);
                     } catch (Exception e) {
-                        Log.e(TAG, "⚠️ Error highlighting next circle item", e);
+                        PinViewLog.e(TAG, "⚠️ Error highlighting next circle item", e);
                     }
                 }
             }
         } catch (Exception e) {
-            Log.e(TAG, "🚫 Error drawing pin view", e);
+            PinViewLog.e(TAG, "🚫 Error drawing pin view", e);
+        }
+    }
+
+    /**
+     * Draws a single PIN item: background, cursor, border and content.
+     * The item geometry must already be loaded.
+     *
+     * @param canvas The canvas to draw on
+     * @param i The index of the PIN item
+     * @param highlight Whether the item is the highlighted (next) item
+     * @param itemLineColor The resolved border/line color for the item
+     */
+    private void drawItem(Canvas canvas, int i, boolean highlight, int itemLineColor) {
+        mPaint.setColor(itemLineColor);
+
+        int saveCount = canvas.save();
+        try {
+            if (mView.getViewType() == PinEntryView.VIEW_TYPE_RECTANGLE
+                    || mView.getViewType() == PinEntryView.VIEW_TYPE_CIRCLE) {
+                Path clipPath = mPathCache.getItemPath(i, mItemBorderRect);
+                if (clipPath != null) {
+                    canvas.clipPath(clipPath);
+                }
+            }
+            drawItemBackground(canvas, highlight);
+        } catch (Exception e) {
+            PinViewLog.e(TAG, "⚠️ Error clipping path or drawing background", e);
+        } finally {
+            canvas.restoreToCount(saveCount);
+        }
+
+        if (highlight) {
+            drawCursor(canvas);
+        }
+
+        if (mView.getViewType() == PinEntryView.VIEW_TYPE_RECTANGLE) {
+            drawPinBox(canvas, i);
+        } else if (mView.getViewType() == PinEntryView.VIEW_TYPE_LINE) {
+            drawPinLine(canvas, i);
+        } else if (mView.getViewType() == PinEntryView.VIEW_TYPE_CIRCLE) {
+            drawPinCircle(canvas, i);
+        }
+
+        if (mView.isDebug()) {
+            drawAnchorLine(canvas);
+        }
+
+        CharSequence transformed = mView.getTransformedText();
+        if (transformed != null && transformed.length() > i) {
+            if (mView.getTransformationMethod() == null && mView.isPasswordHidden()) {
+                drawCircle(canvas, i);
+            } else {
+                drawText(canvas, i);
+            }
+        } else if (mView.getHint() != null &&
+                !TextUtils.isEmpty(mView.getHint())) {
+            drawHint(canvas, i);
+        }
+    }
+
+    /**
+     * Enables or disables recording each item into its own RenderNode.
+     * Only takes effect on API 29+ with a hardware-accelerated canvas.
+     *
+     * @param enabled True to record items into per-item display lists
+     */
+    public void setItemDisplayListsEnabled(boolean enabled) {
+        mDisplayListsEnabled = enabled;
+        if (!enabled) {
+            releaseDisplayLists();
+        }
+    }
+
+    /**
+     * Checks if per-item display lists are enabled.
+     *
+     * @return True if enabled, false otherwise
+     */
+    public boolean isItemDisplayListsEnabled() {
+        return mDisplayListsEnabled;
+    }
+
+    /**
+     * Enables or disables blitting a pre-rasterized bitmap for password mask dots.
+     *
+     * @param enabled True to draw mask dots from a cached bitmap
+     */
+    public void setMaskBitmapEnabled(boolean enabled) {
+        mMaskBitmapEnabled = enabled;
+        if (!enabled) {
+            mMaskCache.release();
+        }
+        invalidateDisplayLists();
+    }
+
+    /**
+     * Checks if mask dots are drawn from a cached bitmap.
+     *
+     * @return True if enabled, false otherwise
+     */
+    public boolean isMaskBitmapEnabled() {
+        return mMaskBitmapEnabled;
+    }
+
+    /**
+     * Releases the cached mask dot bitmap. It is rebuilt on the next masked draw.
+     */
+    public void releaseMaskBitmap() {
+        mMaskCache.release();
+    }
+
+    /**
+     * Forces every item display list to be re-recorded on the next draw. Used for
+     * changes the item key cannot observe, such as a mutated background drawable.
+     */
+    public void invalidateDisplayLists() {
+        mContentGeneration++;
+    }
+
+    /**
+     * Discards all recorded item display lists and frees their native memory.
+     */
+    public void releaseDisplayLists() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && mDisplayLists != null) {
+            mDisplayLists.discard();
+        }
+        mDisplayLists = null;
+        mItemKeys = new int[0];
+    }
+
+    /**
+     * Gets the item display lists to draw through, or null to draw items directly.
+     */
+    private PinViewItemDisplayLists getDisplayLists(Canvas canvas) {
+        if (!mDisplayListsEnabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q
+                || !canvas.isHardwareAccelerated()) {
+            return null;
+        }
+        if (mDisplayLists == null) {
+            mDisplayLists = new PinViewItemDisplayLists();
+        }
+        PinViewItemDisplayLists displayLists = mDisplayLists;
+        int count = Math.max(mView.getItemCount(), 0);
+        displayLists.ensureCount(count);
+        if (mItemKeys.length != count * KEY_SIZE) {
+            mItemKeys = new int[count * KEY_SIZE];
+            displayLists.discard();
+        }
+        return displayLists;
+    }
+
+    /**
+     * Draws an item through its display list, re-recording it only if its key changed.
+     */
+    private void drawItemDisplayList(Canvas canvas, PinViewItemDisplayLists displayLists,
+                                     int i, boolean highlight, int itemLineColor) {
+        fillItemKey(i, highlight, itemLineColor);
+
+        int offset = i * KEY_SIZE;
+        boolean changed = !displayLists.hasDisplayList(i);
+        for (int k = 0; k < KEY_SIZE && !changed; k++) {
+            changed = mItemKeys[offset + k] != mScratchKey[k];
+        }
+
+        if (changed) {
+            Canvas recordingCanvas = displayLists.beginRecording(i, mView.getWidth(), mView.getHeight());
+            try {
+                drawItem(recordingCanvas, i, highlight, itemLineColor);
+            } finally {
+                displayLists.endRecording(i);
+            }
+            System.arraycopy(mScratchKey, 0, mItemKeys, offset, KEY_SIZE);
         }
+        displayLists.draw(canvas, i);
+    }
+
+    /**
+     * Collects every input that affects what an item records into the scratch key.
+     */
+    private void fillItemKey(int i, boolean highlight, int itemLineColor) {
+        CharSequence transformed = mView.getTransformedText();
+        boolean filled = transformed != null && transformed.length() > i;
+        CharSequence hint = mView.getHint();
+        Paint textPaint = getPaintByIndex(i);
+
+        int flags = 0;
+        if (highlight) flags |= 1;
+        if (highlight && mView.drawCursor()) flags |= 1 << 1;
+        if (filled) flags |= 1 << 2;
+        if (mView.isPasswordHidden()) flags |= 1 << 3;
+        if (mView.getTransformationMethod() == null) flags |= 1 << 4;
+        if (mView.isHideLineWhenFilled()) flags |= 1 << 5;
+        if (mView.isDebug()) flags |= 1 << 6;
+        if (i < mView.getLength()) flags |= 1 << 7;
+
+        int[] key = mScratchKey;
+        key[0] = mLayoutGeneration;
+        key[1] = mContentGeneration;
+        key[2] = flags;
+        key[3] = mView.getViewType();
+        key[4] = mView.getItemRadius();
+        key[5] = itemLineColor;
+        key[6] = mPalette.getBackgroundColor();
+        key[7] = System.identityHashCode(mView.getItemBackground());
+        key[8] = textPaint.getColor();
+        key[9] = Float.floatToIntBits(textPaint.getTextSize());
+        key[10] = System.identityHashCode(textPaint.getTypeface());
+        key[11] = filled ? transformed.charAt(i) : (hint != null && hint.length() > i ? hint.charAt(i) : 0);
+        key[12] = mView.getCurrentHintTextColor();
+        key[13] = mPalette.getCursorColor();
+        key[14] = mView.getCursorWidth();
+        key[15] = Float.floatToIntBits(mView.getCursorHeight());
+        key[16] = Arrays.hashCode(mView.getDrawableState());
     }
 
     /**
      * Updates the paint colors and styles before drawing.
      */
     public void updatePaints() {
-        mPaint.setColor(mView.getCurrentLineColor());
+        PinViewPalette palette = mView.getPalette();
+        mPaint.setColor(palette.getActiveLineColor());
         mPaint.setStyle(Paint.Style.STROKE);
         mPaint.setStrokeWidth(mView.getLineWidth());
-        mView.getPaint().setColor(mView.getActiveTextColor());
+        mView.getPaint().setColor(palette.getTextColor());
     }
 
     /**
@@ -194,19 +380,20 @@ public class PinViewDrawer {
         Drawable itemBackground = mView.getItemBackground();
 
         // Check if we should use color-based background
-        int currentBackgroundColor = mView.getCurrentBackgroundColor();
+        int currentBackgroundColor = mPalette.getBackgroundColor();
 
         if (itemBackground == null) {
             // No drawable background set, use color-based background
             if (currentBackgroundColor != android.graphics.Color.TRANSPARENT) {
-                itemBackground = new android.graphics.drawable.ColorDrawable(currentBackgroundColor);
+                mColorBackground.setColor(currentBackgroundColor);
+                itemBackground = mColorBackground;
             } else {
                 return; // No background to draw
             }
-        } else if (itemBackground instanceof android.graphics.drawable.ColorDrawable &&
+        } else if (itemBackground instanceof ColorDrawable &&
                 currentBackgroundColor != android.graphics.Color.TRANSPARENT) {
             // Update existing ColorDrawable with current state color
-            ((android.graphics.drawable.ColorDrawable) itemBackground.mutate()).setColor(currentBackgroundColor);
+            ((ColorDrawable) itemBackground.mutate()).setColor(currentBackgroundColor);
         }
 
         // Draw background inside the stroke area, not covering it
@@ -224,28 +411,6 @@ public class PinViewDrawer {
         }
     }
 
-    /**
-     * Updates the path for drawing a PIN box.
-     *
-     * @param i The index of the PIN item
-     */
-    private void updatePinBoxPath(int i) {
-        boolean drawRightCorner = false;
-        boolean drawLeftCorner = false;
-        if (mView.getItemSpacing() != 0) {
-            drawLeftCorner = drawRightCorner = true;
-        } else {
-            if (i == 0 && i != mView.getItemCount() - 1) {
-                drawLeftCorner = true;
-            }
-            if (i == mView.getItemCount() - 1 && i != 0) {
-                drawRightCorner = true;
-            }
-        }
-        updateRoundRectPath(mItemBorderRect, mView.getItemRadius(),
-                mView.getItemRadius(), drawLeftCorner, drawRightCorner);
-    }
-
     /**
      * Draws the rectangular box for a PIN item.
      *
@@ -256,7 +421,10 @@ public class PinViewDrawer {
         if (mView.isHideLineWhenFilled() && i < mView.getLength()) {
             return;
         }
-        canvas.drawPath(mPath, mPaint);
+        Path boxPath = mPathCache.getItemPath(i, mItemBorderRect);
+        if (boxPath != null) {
+            canvas.drawPath(boxPath, mPaint);
+        }
     }
 
     /**
@@ -269,31 +437,12 @@ public class PinViewDrawer {
         if (mView.isHideLineWhenFilled() && i < mView.getLength()) {
             return;
         }
-        boolean l, r;
-        l = r = true;
-        if (mView.getItemSpacing() == 0 && mView.getItemCount() > 1) {
-            if (i == 0) {
-                // draw only left round
-                r = false;
-            } else if (i == mView.getItemCount() - 1) {
-                // draw only right round
-                l = false;
-            } else {
-                // draw rect
-                l = r = false;
-            }
-        }
         mPaint.setStyle(Paint.Style.FILL);
         mPaint.setStrokeWidth(((float) mView.getLineWidth()) / 10);
-        float halfLineWidth = ((float) mView.getLineWidth()) / 2;
-        mItemLineRect.set(
-                mItemBorderRect.left - halfLineWidth,
-                mItemBorderRect.bottom - halfLineWidth,
-                mItemBorderRect.right + halfLineWidth,
-                mItemBorderRect.bottom + halfLineWidth);
-
-        updateRoundRectPath(mItemLineRect, mView.getItemRadius(), mView.getItemRadius(), l, r);
-        canvas.drawPath(mPath, mPaint);
+        Path linePath = mPathCache.getItemPath(i, mItemBorderRect);
+        if (linePath != null) {
+            canvas.drawPath(linePath, mPaint);
+        }
     }
 
     /**
@@ -338,7 +487,7 @@ public class PinViewDrawer {
 
             int color = mPaint.getColor();
             float width = mPaint.getStrokeWidth();
-            mPaint.setColor(mView.getCursorColor());
+            mPaint.setColor(mPalette.getCursorColor());
             mPaint.setStrokeWidth(mView.getCursorWidth());
 
             canvas.drawLine(x, y, x, y + mView.getCursorHeight(), mPaint);
@@ -349,105 +498,45 @@ public class PinViewDrawer {
     }
 
     /**
-     * Updates the rounded rectangle path.
-     *
-     * @param rectF The rectangle to draw
-     * @param rx The x-radius of the rounded corners
-     * @param ry The y-radius of the rounded corners
-     * @param l Whether to round the left corners
-     * @param r Whether to round the right corners
+     * Marks the cached item geometry as stale. Called by the view whenever an input
+     * to the layout (item count, size, spacing, line width, gravity, padding) changes.
      */
-    private void updateRoundRectPath(RectF rectF, float rx, float ry, boolean l, boolean r) {
-        updateRoundRectPath(rectF, rx, ry, l, r, r, l);
+    public void invalidateLayout() {
+        mLayoutDirty = true;
     }
 
     /**
-     * Updates the rounded rectangle path with specific corner options.
-     *
-     * @param rectF The rectangle to draw
-     * @param rx The x-radius of the rounded corners
-     * @param ry The y-radius of the rounded corners
-     * @param tl Whether to round the top-left corner
-     * @param tr Whether to round the top-right corner
-     * @param br Whether to round the bottom-right corner
-     * @param bl Whether to round the bottom-left corner
-     */
-    private void updateRoundRectPath(RectF rectF, float rx, float ry,
-                                     boolean tl, boolean tr, boolean br, boolean bl) {
-        mPath.reset();
-
-        if (rectF == null) {
-            Log.e(TAG, "🚫 Invalid rectF");
-            return;
-        }
-
-        float l = rectF.left;
-        float t = rectF.top;
-        float r = rectF.right;
-        float b = rectF.bottom;
-
-        float w = r - l;
-        float h = b - t;
-
-        float lw = w - 2 * rx;// line width
-        float lh = h - 2 * ry;// line height
-
-        mPath.moveTo(l, t + ry);
-
-        if (tl) {
-            mPath.rQuadTo(0, -ry, rx, -ry);// top-left corner
-        } else {
-            mPath.rLineTo(0, -ry);
-            mPath.rLineTo(rx, 0);
-        }
-
-        mPath.rLineTo(lw, 0);
-
-        if (tr) {
-            mPath.rQuadTo(rx, 0, rx, ry);// top-right corner
-        } else {
-            mPath.rLineTo(rx, 0);
-            mPath.rLineTo(0, ry);
-        }
-
-        mPath.rLineTo(0, lh);
-
-        if (br) {
-            mPath.rQuadTo(0, ry, -rx, ry);// bottom-right corner
-        } else {
-            mPath.rLineTo(0, ry);
-            mPath.rLineTo(-rx, 0);
-        }
-
-        mPath.rLineTo(-lw, 0);
-
-        if (bl) {
-            mPath.rQuadTo(-rx, 0, -rx, -ry);// bottom-left corner
-        } else {
-            mPath.rLineTo(-rx, 0);
-            mPath.rLineTo(0, -ry);
+     * Rebuilds the item geometry cache if it is stale or the view has been resized or scrolled.
+     */
+    private void ensureLayout() {
+        if (mLayoutDirty
+                || mLayoutWidth != mView.getWidth()
+                || mLayoutScrollX != mView.getScrollX()
+                || mLayoutScrollY != mView.getScrollY()) {
+            rebuildLayout();
         }
-
-        mPath.rLineTo(0, -lh);
-
-        mPath.close();
     }
 
     /**
-     * Updates the rectangle for a PIN item.
-     *
-     * @param i The index of the PIN item
+     * Computes the border rectangle and center point of every PIN item in a single pass.
      */
-    private void updateItemRectF(int i) {
-        float halfLineWidth = ((float) mView.getLineWidth()) / 2;
-        
+    private void rebuildLayout() {
+        int count = Math.max(mView.getItemCount(), 0);
+        if (mItemGeometry.length != count * GEOMETRY_STRIDE) {
+            mItemGeometry = new float[count * GEOMETRY_STRIDE];
+        }
+
+        int lineWidth = mView.getLineWidth();
+        int itemWidth = mView.getItemWidth();
+        int itemSpacing = mView.getItemSpacing();
+        float halfLineWidth = ((float) lineWidth) / 2;
+
         // Calculate total width needed for all items
-        float itemTotalWidth = mView.getItemWidth() * mView.getItemCount() + 
-                mView.getItemSpacing() * (mView.getItemCount() - 1);
-        if (mView.getItemSpacing() == 0) {
-            itemTotalWidth -= mView.getLineWidth() * (mView.getItemCount() - 1);
+        float itemTotalWidth = itemWidth * count + itemSpacing * (count - 1);
+        if (itemSpacing == 0) {
+            itemTotalWidth -= lineWidth * (count - 1);
         }
-        
+
         // Calculate starting X based on gravity
         float startX;
         int viewWidth = mView.getWidth() - mView.getPaddingStart() - mView.getPaddingEnd();
@@ -465,16 +554,72 @@ public class PinViewDrawer {
                 break;
         }
 
-        // Calculate item position
-        float left = startX + i * (mView.getItemSpacing() + mView.getItemWidth()) + halfLineWidth;
-        if (mView.getItemSpacing() == 0 && i > 0) {
-            left = left - (mView.getLineWidth()) * i;
-        }
-        float right = left + mView.getItemWidth() - mView.getLineWidth();
         float top = mView.getScrollY() + mView.getPaddingTop() + halfLineWidth;
-        float bottom = top + mView.getItemHeight() - mView.getLineWidth();
+        float bottom = top + mView.getItemHeight() - lineWidth;
+
+        for (int i = 0; i < count; i++) {
+            float left = startX + i * (itemSpacing + itemWidth) + halfLineWidth;
+            if (itemSpacing == 0 && i > 0) {
+                left = left - lineWidth * i;
+            }
+            float right = left + itemWidth - lineWidth;
+
+            int offset = i * GEOMETRY_STRIDE;
+            mItemGeometry[offset + LEFT] = left;
+            mItemGeometry[offset + TOP] = top;
+            mItemGeometry[offset + RIGHT] = right;
+            mItemGeometry[offset + BOTTOM] = bottom;
+            mItemGeometry[offset + CENTER_X] = left + Math.abs(right - left) / 2;
+            mItemGeometry[offset + CENTER_Y] = top + Math.abs(bottom - top) / 2;
+        }
+
+        mLayoutWidth = mView.getWidth();
+        mLayoutScrollX = mView.getScrollX();
+        mLayoutScrollY = mView.getScrollY();
+        mLayoutDirty = false;
+        mLayoutGeneration++;
+        mPathCache.invalidate();
+    }
+
+    /**
+     * Gets the dirty bounds of a PIN item, including its stroke, in view content coordinates.
+     *
+     * @param i The index of the PIN item
+     * @param outBounds Receives the item bounds
+     * @return True if the item exists and outBounds was set, false otherwise
+     */
+    public boolean getItemBounds(int i, Rect outBounds) {
+        ensureLayout();
+        int offset = i * GEOMETRY_STRIDE;
+        if (offset < 0 || offset + GEOMETRY_STRIDE > mItemGeometry.length) {
+            return false;
+        }
+        // Stroke, underline and the next-item highlight may reach one line width past the rect
+        int inset = mView.getLineWidth() + 1;
+        outBounds.set(
+                (int) Math.floor(mItemGeometry[offset + LEFT]) - inset,
+                (int) Math.floor(mItemGeometry[offset + TOP]) - inset,
+                (int) Math.ceil(mItemGeometry[offset + RIGHT]) + inset,
+                (int) Math.ceil(mItemGeometry[offset + BOTTOM]) + inset);
+        return true;
+    }
 
-        mItemBorderRect.set(left, top, right, bottom);
+    /**
+     * Loads the cached rectangle and center point for a PIN item.
+     *
+     * @param i The index of the PIN item
+     */
+    private void loadItemGeometry(int i) {
+        int offset = i * GEOMETRY_STRIDE;
+        if (offset < 0 || offset + GEOMETRY_STRIDE > mItemGeometry.length) {
+            return;
+        }
+        mItemBorderRect.set(
+                mItemGeometry[offset + LEFT],
+                mItemGeometry[offset + TOP],
+                mItemGeometry[offset + RIGHT],
+                mItemGeometry[offset + BOTTOM]);
+        mItemCenterPoint.set(mItemGeometry[offset + CENTER_X], mItemGeometry[offset + CENTER_Y]);
     }
 
     /**
@@ -521,12 +666,19 @@ public class PinViewDrawer {
         if (text == null || charAt >= text.length()) {
             return;
         }
-        paint.getTextBounds(text.toString(), charAt, charAt + 1, mTextRect);
+        mGlyph[0] = text.charAt(charAt);
+        if (paint == mView.getPaint()) {
+            // Stable paint: glyph bounds come from the cache after the first measurement
+            mGlyphCache.getTextBounds(paint, mGlyph[0], mTextRect);
+        } else {
+            // The animator paint changes size every frame, measure it directly
+            paint.getTextBounds(mGlyph, 0, 1, mTextRect);
+        }
         float cx = mItemCenterPoint.x;
         float cy = mItemCenterPoint.y;
         float x = cx - Math.abs((float) mTextRect.width()) / 2 - mTextRect.left;
         float y = cy + Math.abs((float) mTextRect.height()) / 2 - mTextRect.bottom;// always center vertical
-        canvas.drawText(text, charAt, charAt + 1, x, y, paint);
+        canvas.drawText(mGlyph, 0, 1, x, y, paint);
     }
 
     /**
@@ -541,7 +693,12 @@ public class PinViewDrawer {
         Paint paint = getPaintByIndex(i);
         float cx = mItemCenterPoint.x;
         float cy = mItemCenterPoint.y;
-        canvas.drawCircle(cx, cy, paint.getTextSize() / 2, paint);
+        if (mMaskBitmapEnabled) {
+            mMaskCache.drawDot(canvas, cx, cy, paint.getTextSize() / 2,
+                    mView.getTextSize() / 2, paint.getColor());
+        } else {
+            canvas.drawCircle(cx, cy, paint.getTextSize() / 2, paint);
+        }
     }
 
     /**
@@ -551,6 +708,15 @@ public class PinViewDrawer {
      * @return The paint to use
      */
     private Paint getPaintByIndex(int i) {
+        if (mView.isAnimationEnabled()) {
+            float revealScale = mView.getRevealScale(i);
+            if (revealScale < 1f) {
+                mRevealTextPaint.set(mView.getPaint());
+                mRevealTextPaint.setTextSize(mView.getTextSize() * revealScale);
+                mRevealTextPaint.setAlpha((int) (255 * revealScale));
+                return mRevealTextPaint;
+            }
+        }
         if (mView.isAnimationEnabled() && i == mView.getLength() - 1) {
             mAnimatorTextPaint.setColor(mView.getPaint().getColor());
             return mAnimatorTextPaint;
@@ -588,15 +754,6 @@ public class PinViewDrawer {
         mPaint.setStrokeWidth(mView.getLineWidth());
     }
 
-    /**
-     * Updates the center point of the current PIN item.
-     */
-    private void updateCenterPoint() {
-        float cx = mItemBorderRect.left + Math.abs(mItemBorderRect.width()) / 2;
-        float cy = mItemBorderRect.top + Math.abs(mItemBorderRect.height()) / 2;
-        mItemCenterPoint.set(cx, cy);
-    }
-
     /**
      * Gets the current item border rect for testing/debugging.
      */
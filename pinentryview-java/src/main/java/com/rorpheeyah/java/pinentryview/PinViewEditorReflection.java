@@ -0,0 +1,150 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.annotation.SuppressLint;
+import android.graphics.drawable.Drawable;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Field;
+
+/**
+ * Process-wide cache of the hidden TextView/Editor fields used to hide the cursor and
+ * selection handles before API 29.
+ * <p>
+ * Every {@link Field} is looked up and made accessible once per process. If a required
+ * field is missing the failure is cached too, so later views skip reflection entirely.
+ * The cursor field is optional: it is a {@code Drawable[]} named {@code mCursorDrawable}
+ * up to API 27 and a single {@code mDrawableForCursor} on API 28.
+ */
+@SuppressLint({"PrivateApi", "DiscouragedPrivateApi", "SoonBlockedPrivateApi"})
+final class PinViewEditorReflection {
+    private static final String TAG = "PinViewEditorReflection";
+
+    private static final int UNRESOLVED = 0;
+    private static final int SUPPORTED = 1;
+    private static final int UNSUPPORTED = 2;
+
+    private static volatile int sEditorState = UNRESOLVED;
+    private static Field sEditorField;
+
+    private static volatile int sHandlesState = UNRESOLVED;
+    private static Field sCursorField;
+    private static Field sHandleCenterField;
+    private static Field sHandleLeftField;
+    private static Field sHandleRightField;
+
+    private PinViewEditorReflection() {
+    }
+
+    /**
+     * Checks if an earlier lookup found the hidden fields missing on this device.
+     *
+     * @return True if reflection is known not to work, false otherwise
+     */
+    static boolean isUnsupported() {
+        return sEditorState == UNSUPPORTED || sHandlesState == UNSUPPORTED;
+    }
+
+    /**
+     * Gets the hidden Editor of a TextView.
+     *
+     * @param view The TextView
+     * @return The Editor, or null if it does not exist or cannot be accessed
+     */
+    @Nullable
+    static Object getEditor(@NonNull TextView view) {
+        if (sEditorState == UNRESOLVED) {
+            resolveEditorField();
+        }
+        if (sEditorState != SUPPORTED) {
+            return null;
+        }
+        try {
+            return sEditorField.get(view);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the cursor and selection handle drawables of an Editor.
+     *
+     * @param editor The Editor returned by {@link #getEditor(TextView)}
+     * @param drawable The drawable to use for the cursor and every handle
+     * @return True if the handles were replaced, false otherwise
+     */
+    static boolean setCursorAndHandles(@NonNull Object editor, @NonNull Drawable drawable) {
+        if (sHandlesState == UNRESOLVED) {
+            resolveHandleFields(editor.getClass());
+        }
+        if (sHandlesState != SUPPORTED) {
+            return false;
+        }
+        try {
+            if (sCursorField != null) {
+                if (sCursorField.getType().isArray()) {
+                    sCursorField.set(editor, new Drawable[]{drawable, drawable});
+                } else {
+                    sCursorField.set(editor, drawable);
+                }
+            }
+            sHandleCenterField.set(editor, drawable);
+            sHandleLeftField.set(editor, drawable);
+            sHandleRightField.set(editor, drawable);
+            return true;
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            PinViewLog.e(TAG, "❌ Failed to set handles: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static synchronized void resolveEditorField() {
+        if (sEditorState != UNRESOLVED) {
+            return;
+        }
+        try {
+            Field field = TextView.class.getDeclaredField("mEditor");
+            field.setAccessible(true);
+            sEditorField = field;
+            sEditorState = SUPPORTED;
+        } catch (Exception e) {
+            PinViewLog.w(TAG, "⚠️ TextView.mEditor not accessible, skipping handle reflection");
+            sEditorState = UNSUPPORTED;
+        }
+    }
+
+    private static synchronized void resolveHandleFields(Class<?> editorClass) {
+        if (sHandlesState != UNRESOLVED) {
+            return;
+        }
+        try {
+            sHandleCenterField = accessibleField(editorClass, "mSelectHandleCenter");
+            sHandleLeftField = accessibleField(editorClass, "mSelectHandleLeft");
+            sHandleRightField = accessibleField(editorClass, "mSelectHandleRight");
+        } catch (Exception e) {
+            PinViewLog.w(TAG, "⚠️ Editor handle fields not accessible, skipping handle reflection");
+            sHandlesState = UNSUPPORTED;
+            return;
+        }
+
+        try {
+            sCursorField = accessibleField(editorClass, "mCursorDrawable");
+        } catch (Exception e) {
+            try {
+                sCursorField = accessibleField(editorClass, "mDrawableForCursor");
+            } catch (Exception e2) {
+                PinViewLog.w(TAG, "⚠️ Editor cursor field not accessible, keeping the cursor drawable");
+                sCursorField = null;
+            }
+        }
+        sHandlesState = SUPPORTED;
+    }
+
+    private static Field accessibleField(Class<?> cls, String name) throws NoSuchFieldException {
+        Field field = cls.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+}
@@ -0,0 +1,122 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Caches the text bounds of single glyphs for one paint configuration.
+ * <p>
+ * Digits '0'-'9' live in a fixed table and any other character (mask glyphs, hints)
+ * in a small round-robin table, so centering a PIN character needs no measurement once
+ * its glyph has been seen. The cache flushes itself when the text size, typeface, scale,
+ * skew, letter spacing or paint flags change.
+ */
+public class PinViewGlyphCache {
+    private static final int BOUNDS_STRIDE = 4;
+    private static final int DIGIT_COUNT = 10;
+    private static final int OTHER_CAPACITY = 8;
+
+    private final char[] mGlyph = new char[1];
+    private final Rect mScratch = new Rect();
+
+    // Flat left/top/right/bottom tables
+    private final int[] mDigitBounds = new int[DIGIT_COUNT * BOUNDS_STRIDE];
+    private final boolean[] mDigitValid = new boolean[DIGIT_COUNT];
+    private final int[] mOtherBounds = new int[OTHER_CAPACITY * BOUNDS_STRIDE];
+    private final char[] mOtherChars = new char[OTHER_CAPACITY];
+    private int mOtherCount;
+    private int mOtherNext;
+
+    // Paint configuration the cached bounds belong to
+    private float mTextSize = -1;
+    private Typeface mTypeface;
+    private float mTextScaleX;
+    private float mTextSkewX;
+    private float mLetterSpacing;
+    private int mFlags;
+
+    /**
+     * Gets the bounds of a single glyph, measuring it only on a cache miss.
+     *
+     * @param paint The paint the glyph will be drawn with
+     * @param c The character to measure
+     * @param outBounds Receives the glyph bounds
+     */
+    public void getTextBounds(@NonNull Paint paint, char c, @NonNull Rect outBounds) {
+        checkPaint(paint);
+
+        if (c >= '0' && c <= '9') {
+            int index = c - '0';
+            int offset = index * BOUNDS_STRIDE;
+            if (!mDigitValid[index]) {
+                measure(paint, c, mDigitBounds, offset);
+                mDigitValid[index] = true;
+            }
+            read(mDigitBounds, offset, outBounds);
+            return;
+        }
+
+        for (int i = 0; i < mOtherCount; i++) {
+            if (mOtherChars[i] == c) {
+                read(mOtherBounds, i * BOUNDS_STRIDE, outBounds);
+                return;
+            }
+        }
+
+        int slot = mOtherNext;
+        mOtherNext = (mOtherNext + 1) % OTHER_CAPACITY;
+        if (mOtherCount < OTHER_CAPACITY) {
+            mOtherCount++;
+        }
+        mOtherChars[slot] = c;
+        measure(paint, c, mOtherBounds, slot * BOUNDS_STRIDE);
+        read(mOtherBounds, slot * BOUNDS_STRIDE, outBounds);
+    }
+
+    /**
+     * Drops every cached glyph.
+     */
+    public void clear() {
+        for (int i = 0; i < DIGIT_COUNT; i++) {
+            mDigitValid[i] = false;
+        }
+        mOtherCount = 0;
+        mOtherNext = 0;
+    }
+
+    /**
+     * Flushes the cache if the paint no longer matches the cached configuration.
+     */
+    private void checkPaint(Paint paint) {
+        if (paint.getTextSize() != mTextSize
+                || paint.getTypeface() != mTypeface
+                || paint.getTextScaleX() != mTextScaleX
+                || paint.getTextSkewX() != mTextSkewX
+                || paint.getLetterSpacing() != mLetterSpacing
+                || paint.getFlags() != mFlags) {
+            clear();
+            mTextSize = paint.getTextSize();
+            mTypeface = paint.getTypeface();
+            mTextScaleX = paint.getTextScaleX();
+            mTextSkewX = paint.getTextSkewX();
+            mLetterSpacing = paint.getLetterSpacing();
+            mFlags = paint.getFlags();
+        }
+    }
+
+    private void measure(Paint paint, char c, int[] table, int offset) {
+        mGlyph[0] = c;
+        paint.getTextBounds(mGlyph, 0, 1, mScratch);
+        table[offset] = mScratch.left;
+        table[offset + 1] = mScratch.top;
+        table[offset + 2] = mScratch.right;
+        table[offset + 3] = mScratch.bottom;
+    }
+
+    private static void read(int[] table, int offset, Rect outBounds) {
+        outBounds.set(table[offset], table[offset + 1], table[offset + 2], table[offset + 3]);
+    }
+}
@@ -0,0 +1,96 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.graphics.Canvas;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+/**
+ * Holds one {@link RenderNode} per PIN item so that unchanged items can be replayed
+ * without being re-recorded. Used by {@link PinViewDrawer} on API 29+.
+ */
+@RequiresApi(api = Build.VERSION_CODES.Q)
+public class PinViewItemDisplayLists {
+
+    private RenderNode[] mNodes = new RenderNode[0];
+
+    /**
+     * Makes sure there is one node per item.
+     *
+     * @param count The number of PIN items
+     */
+    public void ensureCount(int count) {
+        if (mNodes.length == count) {
+            return;
+        }
+        discard();
+        RenderNode[] nodes = new RenderNode[count];
+        System.arraycopy(mNodes, 0, nodes, 0, Math.min(mNodes.length, count));
+        for (int i = 0; i < count; i++) {
+            if (nodes[i] == null) {
+                nodes[i] = new RenderNode("PinEntryViewItem");
+                // Item geometry already includes the scroll offset
+                nodes[i].setClipToBounds(false);
+            }
+        }
+        mNodes = nodes;
+    }
+
+    /**
+     * Checks if an item has a recorded display list.
+     *
+     * @param i The index of the PIN item
+     * @return True if the item can be replayed, false otherwise
+     */
+    public boolean hasDisplayList(int i) {
+        return mNodes[i].hasDisplayList();
+    }
+
+    /**
+     * Starts recording an item.
+     *
+     * @param i The index of the PIN item
+     * @param width The view width
+     * @param height The view height
+     * @return The canvas to record the item into
+     */
+    @NonNull
+    public RecordingCanvas beginRecording(int i, int width, int height) {
+        RenderNode node = mNodes[i];
+        node.setPosition(0, 0, width, height);
+        return node.beginRecording(width, height);
+    }
+
+    /**
+     * Finishes recording an item.
+     *
+     * @param i The index of the PIN item
+     */
+    public void endRecording(int i) {
+        mNodes[i].endRecording();
+    }
+
+    /**
+     * Replays an item's display list.
+     *
+     * @param canvas The hardware-accelerated canvas to draw on
+     * @param i The index of the PIN item
+     */
+    public void draw(@NonNull Canvas canvas, int i) {
+        canvas.drawRenderNode(mNodes[i]);
+    }
+
+    /**
+     * Discards every recorded display list.
+     */
+    public void discard() {
+        for (RenderNode node : mNodes) {
+            if (node != null) {
+                node.discardDisplayList();
+            }
+        }
+    }
+}
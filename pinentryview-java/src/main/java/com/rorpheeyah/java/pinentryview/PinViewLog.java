@@ -0,0 +1,46 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.util.Log;
+
+/**
+ * Library-internal logging facade.
+ * <p>
+ * Verbose, debug, info and warning output is gated by {@link #DBG}, a compile-time
+ * constant generated per build type. Call sites that build their message by
+ * concatenation wrap the call in {@code if (PinViewLog.DBG)} so that release builds
+ * strip both the string building and the {@link Log} call. Errors are always logged.
+ */
+final class PinViewLog {
+
+    /**
+     * True when library logging is compiled in (debug builds only).
+     */
+    static final boolean DBG = BuildConfig.PIN_VIEW_LOGGING;
+
+    private PinViewLog() {
+    }
+
+    static void v(String tag, String msg) {
+        if (DBG) Log.v(tag, msg);
+    }
+
+    static void d(String tag, String msg) {
+        if (DBG) Log.d(tag, msg);
+    }
+
+    static void i(String tag, String msg) {
+        if (DBG) Log.i(tag, msg);
+    }
+
+    static void w(String tag, String msg) {
+        if (DBG) Log.w(tag, msg);
+    }
+
+    static void e(String tag, String msg) {
+        Log.e(tag, msg);
+    }
+
+    static void e(String tag, String msg, Throwable tr) {
+        Log.e(tag, msg, tr);
+    }
+}
@@ -0,0 +1,86 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+
+/**
+ * Pre-rasterized password mask dot.
+ * <p>
+ * The anti-aliased dot is drawn once into a bitmap for the current size and color and
+ * then blitted for every masked item, which is cheaper than an anti-aliased
+ * {@link Canvas#drawCircle} per item on software-rendered canvases. Scaled or
+ * translucent dots (e.g. during the add animation) reuse the same bitmap through a
+ * scaled destination rect and the blit paint's alpha.
+ */
+public class PinViewMaskCache {
+    // Extra pixels around the dot so anti-aliased edges are not clipped
+    private static final int EDGE = 1;
+
+    private final Paint mDotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mBlitPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF mDst = new RectF();
+
+    private Bitmap mBitmap;
+    private float mRadius = -1;
+    private int mColor;
+
+    /**
+     * Draws a mask dot.
+     *
+     * @param canvas The canvas to draw on
+     * @param cx The x-coordinate of the dot center
+     * @param cy The y-coordinate of the dot center
+     * @param radius The radius to draw the dot at
+     * @param baseRadius The stable radius the dot is rasterized at
+     * @param color The dot color, including alpha
+     */
+    public void drawDot(@NonNull Canvas canvas, float cx, float cy, float radius,
+                        float baseRadius, @ColorInt int color) {
+        if (baseRadius <= 0 || radius <= 0) {
+            return;
+        }
+
+        int opaqueColor = color | 0xFF000000;
+        if (mBitmap == null || baseRadius != mRadius || opaqueColor != mColor) {
+            rasterize(baseRadius, opaqueColor);
+        }
+
+        float half = (mBitmap.getWidth() / 2f) * (radius / baseRadius);
+        mDst.set(cx - half, cy - half, cx + half, cy + half);
+        mBlitPaint.setAlpha(Color.alpha(color));
+        canvas.drawBitmap(mBitmap, null, mDst, mBlitPaint);
+    }
+
+    /**
+     * Drops the cached bitmap.
+     * <p>
+     * The bitmap is not recycled: a hardware display list or a per-item RenderNode may
+     * still reference it, and before API 26 recycling it underneath them crashes or draws
+     * garbage. It is left to the garbage collector instead.
+     */
+    public void release() {
+        mBitmap = null;
+        mRadius = -1;
+    }
+
+    /**
+     * Draws the dot into a new bitmap for the given size and color.
+     */
+    private void rasterize(float radius, int color) {
+        release();
+
+        int size = (int) Math.ceil(radius * 2) + 2 * EDGE;
+        mBitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        mDotPaint.setColor(color);
+        new Canvas(mBitmap).drawCircle(size / 2f, size / 2f, radius, mDotPaint);
+
+        mRadius = radius;
+        mColor = color;
+    }
+}
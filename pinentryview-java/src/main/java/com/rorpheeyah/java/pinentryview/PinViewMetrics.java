@@ -0,0 +1,285 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.view.Choreographer;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Collects input latency and rendering counters for a PinEntryView.
+ * <p>
+ * Keystroke latency is measured from {@code onTextChanged} to the vsync that follows the
+ * frame in which the view drew the change, i.e. the earliest moment the new character can
+ * be on screen. It is reported per keystroke through {@link Listener} and aggregated over
+ * the most recent {@link #SAMPLE_CAPACITY} keystrokes in a {@link Snapshot}.
+ * <p>
+ * Recording is allocation-free; only {@link #getSnapshot()} allocates.
+ */
+@MainThread
+public final class PinViewMetrics implements Choreographer.FrameCallback {
+    private static final String TAG = "PinViewMetrics";
+
+    /**
+     * Number of most recent latency samples kept for percentiles.
+     */
+    public static final int SAMPLE_CAPACITY = 256;
+
+    // Keystrokes that can be waiting for a frame at once (a PIN rarely exceeds this)
+    private static final int MAX_PENDING = 16;
+
+    /**
+     * Callback for per-keystroke latency.
+     */
+    public interface Listener {
+        /**
+         * Called once the frame showing a keystroke has been handed off for display.
+         *
+         * @param view The view the keystroke was typed into
+         * @param latencyNanos Time from the text change to the following vsync, in nanoseconds
+         */
+        void onKeystrokeRendered(@NonNull PinEntryView view, long latencyNanos);
+    }
+
+    private final PinEntryView mView;
+    private Listener mListener;
+
+    // Ring buffer of latency samples
+    private final long[] mSamples = new long[SAMPLE_CAPACITY];
+    private int mSampleCount;
+    private int mSampleNext;
+
+    // Keystrokes not rendered yet, oldest first
+    private final long[] mPending = new long[MAX_PENDING];
+    private int mPendingCount;
+    private int mDrawnCount;
+    private boolean mAwaitingFrame;
+
+    private long mKeystrokeCount;
+    private long mDrawCount;
+    private long mInvalidationCount;
+    private long mBlinkTickCount;
+
+    PinViewMetrics(@NonNull PinEntryView view) {
+        mView = view;
+    }
+
+    void setListener(@Nullable Listener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Records a text change. Called from {@code onTextChanged}.
+     */
+    void onKeystroke() {
+        mKeystrokeCount++;
+        if (mPendingCount < MAX_PENDING) {
+            mPending[mPendingCount++] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records a draw pass and arms the frame callback for keystrokes it rendered.
+     */
+    void onDraw() {
+        mDrawCount++;
+        if (mPendingCount > 0 && !mAwaitingFrame) {
+            mDrawnCount = mPendingCount;
+            mAwaitingFrame = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Records an invalidation issued by the view, full or partial. Invalidations deferred
+     * by a batch are recorded once, when the batch issues them.
+     */
+    void onInvalidate() {
+        mInvalidationCount++;
+    }
+
+    /**
+     * Records a cursor blink tick.
+     */
+    void onBlinkTick() {
+        mBlinkTickCount++;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mAwaitingFrame = false;
+        int drawn = Math.min(mDrawnCount, mPendingCount);
+        for (int i = 0; i < drawn; i++) {
+            long latency = Math.max(frameTimeNanos - mPending[i], 0);
+            addSample(latency);
+            if (mListener != null) {
+                mListener.onKeystrokeRendered(mView, latency);
+            }
+        }
+
+        // Keep keystrokes that arrived after the draw for the next frame
+        mPendingCount -= drawn;
+        System.arraycopy(mPending, drawn, mPending, 0, mPendingCount);
+        mDrawnCount = 0;
+    }
+
+    /**
+     * Drops keystrokes waiting for a frame, e.g. when the view is detached.
+     */
+    void cancelPending() {
+        if (mAwaitingFrame) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            mAwaitingFrame = false;
+        }
+        mPendingCount = 0;
+        mDrawnCount = 0;
+    }
+
+    /**
+     * Clears all samples and counters.
+     */
+    public void reset() {
+        cancelPending();
+        mSampleCount = 0;
+        mSampleNext = 0;
+        mKeystrokeCount = 0;
+        mDrawCount = 0;
+        mInvalidationCount = 0;
+        mBlinkTickCount = 0;
+    }
+
+    /**
+     * Aggregates the current samples and counters.
+     *
+     * @return An immutable snapshot
+     */
+    @NonNull
+    public Snapshot getSnapshot() {
+        long[] sorted = Arrays.copyOf(mSamples, mSampleCount);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, mKeystrokeCount, mDrawCount, mInvalidationCount, mBlinkTickCount);
+    }
+
+    private void addSample(long latencyNanos) {
+        mSamples[mSampleNext] = latencyNanos;
+        mSampleNext = (mSampleNext + 1) % SAMPLE_CAPACITY;
+        if (mSampleCount < SAMPLE_CAPACITY) {
+            mSampleCount++;
+        }
+    }
+
+    /**
+     * Immutable aggregate of keystroke latency percentiles and rendering counters.
+     */
+    public static final class Snapshot {
+        private final int mSampleCount;
+        private final long mP50;
+        private final long mP95;
+        private final long mP99;
+        private final long mMax;
+        private final long mKeystrokeCount;
+        private final long mDrawCount;
+        private final long mInvalidationCount;
+        private final long mBlinkTickCount;
+
+        Snapshot(long[] sortedSamples, long keystrokeCount, long drawCount,
+                 long invalidationCount, long blinkTickCount) {
+            mSampleCount = sortedSamples.length;
+            mP50 = percentile(sortedSamples, 50);
+            mP95 = percentile(sortedSamples, 95);
+            mP99 = percentile(sortedSamples, 99);
+            mMax = sortedSamples.length > 0 ? sortedSamples[sortedSamples.length - 1] : 0;
+            mKeystrokeCount = keystrokeCount;
+            mDrawCount = drawCount;
+            mInvalidationCount = invalidationCount;
+            mBlinkTickCount = blinkTickCount;
+        }
+
+        /**
+         * Nearest-rank percentile of sorted samples, 0 if there are none.
+         */
+        private static long percentile(long[] sorted, int percent) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+            return sorted[Math.max(rank, 1) - 1];
+        }
+
+        /**
+         * @return Number of latency samples the percentiles were computed from
+         */
+        public int getSampleCount() {
+            return mSampleCount;
+        }
+
+        /**
+         * @return Median keystroke latency in nanoseconds
+         */
+        public long getLatencyP50Nanos() {
+            return mP50;
+        }
+
+        /**
+         * @return 95th percentile keystroke latency in nanoseconds
+         */
+        public long getLatencyP95Nanos() {
+            return mP95;
+        }
+
+        /**
+         * @return 99th percentile keystroke latency in nanoseconds
+         */
+        public long getLatencyP99Nanos() {
+            return mP99;
+        }
+
+        /**
+         * @return Highest keystroke latency in nanoseconds
+         */
+        public long getLatencyMaxNanos() {
+            return mMax;
+        }
+
+        /**
+         * @return Number of text changes since metrics were enabled or reset
+         */
+        public long getKeystrokeCount() {
+            return mKeystrokeCount;
+        }
+
+        /**
+         * @return Number of draw passes
+         */
+        public long getDrawCount() {
+            return mDrawCount;
+        }
+
+        /**
+         * @return Number of full and partial invalidations issued by the view
+         */
+        public long getInvalidationCount() {
+            return mInvalidationCount;
+        }
+
+        /**
+         * @return Number of cursor blink ticks
+         */
+        public long getBlinkTickCount() {
+            return mBlinkTickCount;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s{samples=%d, p50=%.2fms, p95=%.2fms, p99=%.2fms, max=%.2fms, "
+                            + "keystrokes=%d, draws=%d, invalidations=%d, blinkTicks=%d}",
+                    TAG, mSampleCount, mP50 / 1e6, mP95 / 1e6, mP99 / 1e6, mMax / 1e6,
+                    mKeystrokeCount, mDrawCount, mInvalidationCount, mBlinkTickCount);
+        }
+    }
+}
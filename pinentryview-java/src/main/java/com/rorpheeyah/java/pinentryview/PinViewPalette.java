@@ -0,0 +1,113 @@
+package com.rorpheeyah.java.pinentryview;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+
+/**
+ * Immutable table of colors resolved for the current view state.
+ * <p>
+ * Published by {@link PinViewStateManager} and rebuilt only when the state, the drawable
+ * state or one of the colors changes, so the drawer reads plain ints instead of resolving
+ * ColorStateLists and state configurations for every item on every frame.
+ */
+public final class PinViewPalette {
+
+    /**
+     * Drawable state used for the highlighted (next) item.
+     */
+    static final int[] HIGHLIGHT_STATES = new int[]{ android.R.attr.state_selected };
+
+    private final PinViewState.Type mStateType;
+    private final int mActiveLineColor;
+    private final int mLineColor;
+    private final int mHighlightLineColor;
+    private final int mTextColor;
+    private final int mBackgroundColor;
+    private final int mCursorColor;
+
+    PinViewPalette(@NonNull PinViewState.Type stateType,
+                   @ColorInt int activeLineColor,
+                   @ColorInt int lineColor,
+                   @ColorInt int highlightLineColor,
+                   @ColorInt int textColor,
+                   @ColorInt int backgroundColor,
+                   @ColorInt int cursorColor) {
+        mStateType = stateType;
+        mActiveLineColor = activeLineColor;
+        mLineColor = lineColor;
+        mHighlightLineColor = highlightLineColor;
+        mTextColor = textColor;
+        mBackgroundColor = backgroundColor;
+        mCursorColor = cursorColor;
+    }
+
+    /**
+     * Gets the state type this palette was resolved for
+     */
+    @NonNull
+    public PinViewState.Type getStateType() {
+        return mStateType;
+    }
+
+    /**
+     * Gets the line color of the current state, used as the paint default
+     */
+    @ColorInt
+    public int getActiveLineColor() {
+        return mActiveLineColor;
+    }
+
+    /**
+     * Gets the border/line color for an item
+     *
+     * @param highlight Whether the item is the highlighted (next) item
+     */
+    @ColorInt
+    public int getLineColor(boolean highlight) {
+        return highlight ? mHighlightLineColor : mLineColor;
+    }
+
+    /**
+     * Gets the border/line color for the highlighted (next) item
+     */
+    @ColorInt
+    public int getHighlightLineColor() {
+        return mHighlightLineColor;
+    }
+
+    /**
+     * Gets the text color
+     */
+    @ColorInt
+    public int getTextColor() {
+        return mTextColor;
+    }
+
+    /**
+     * Gets the item background color
+     */
+    @ColorInt
+    public int getBackgroundColor() {
+        return mBackgroundColor;
+    }
+
+    /**
+     * Gets the cursor color
+     */
+    @ColorInt
+    public int getCursorColor() {
+        return mCursorColor;
+    }
+
+    @Override
+    public String toString() {
+        return "PinViewPalette{" +
+                "state=" + mStateType +
+                ", line=#" + Integer.toHexString(mLineColor) +
+                ", highlightLine=#" + Integer.toHexString(mHighlightLineColor) +
+                ", text=#" + Integer.toHexString(mTextColor) +
+                ", background=#" + Integer.toHexString(mBackgroundColor) +
+                ", cursor=#" + Integer.toHexString(mCursorColor) +
+                '}';
+    }
+}
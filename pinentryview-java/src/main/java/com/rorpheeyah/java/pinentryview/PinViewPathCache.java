@@ -0,0 +1,253 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Holds one prebuilt {@link Path} per PIN item for the current view type.
+ * <p>
+ * Rectangle items cache their rounded box outline, line items their rounded underline
+ * and circle items their clip circle. Paths are built lazily on first use and reused
+ * until the item geometry, radius, spacing, line width, count or view type changes.
+ */
+public class PinViewPathCache {
+    private static final String TAG = PinViewPathCache.class.getSimpleName();
+
+    private final PinEntryView mView;
+    private final RectF mLineRect = new RectF();
+
+    private Path[] mPaths = new Path[0];
+    private boolean[] mValid = new boolean[0];
+
+    // Inputs the cached paths were built from
+    private int mViewType = -1;
+    private int mItemCount = -1;
+    private int mItemRadius = -1;
+    private int mItemSpacing = -1;
+    private int mLineWidth = -1;
+
+    /**
+     * Creates a new path cache for the given view.
+     *
+     * @param view The PinEntryView whose items are cached
+     */
+    public PinViewPathCache(@NonNull PinEntryView view) {
+        mView = view;
+    }
+
+    /**
+     * Drops every cached path. Called whenever the item geometry is recomputed.
+     */
+    public void invalidate() {
+        for (int i = 0; i < mValid.length; i++) {
+            mValid[i] = false;
+        }
+    }
+
+    /**
+     * Gets the cached path for a PIN item, building it if needed.
+     *
+     * @param i The index of the PIN item
+     * @param itemRect The border rectangle of the PIN item
+     * @return The path for the item, or null if the view type has no path
+     */
+    @Nullable
+    public Path getItemPath(int i, @NonNull RectF itemRect) {
+        int viewType = mView.getViewType();
+        if (viewType == PinEntryView.VIEW_TYPE_NONE) {
+            return null;
+        }
+
+        checkKey(viewType);
+        if (i < 0 || i >= mPaths.length) {
+            return null;
+        }
+
+        if (!mValid[i]) {
+            Path path = mPaths[i];
+            if (path == null) {
+                path = new Path();
+                mPaths[i] = path;
+            }
+            buildItemPath(path, viewType, i, itemRect);
+            mValid[i] = true;
+        }
+        return mPaths[i];
+    }
+
+    /**
+     * Invalidates all paths if any of the inputs they depend on has changed.
+     */
+    private void checkKey(int viewType) {
+        int count = Math.max(mView.getItemCount(), 0);
+        int radius = mView.getItemRadius();
+        int spacing = mView.getItemSpacing();
+        int lineWidth = mView.getLineWidth();
+
+        if (count != mItemCount) {
+            Path[] paths = new Path[count];
+            System.arraycopy(mPaths, 0, paths, 0, Math.min(mPaths.length, count));
+            mPaths = paths;
+            mValid = new boolean[count];
+        } else if (viewType != mViewType || radius != mItemRadius
+                || spacing != mItemSpacing || lineWidth != mLineWidth) {
+            invalidate();
+        }
+
+        mViewType = viewType;
+        mItemCount = count;
+        mItemRadius = radius;
+        mItemSpacing = spacing;
+        mLineWidth = lineWidth;
+    }
+
+    /**
+     * Builds the path for a PIN item according to the view type.
+     */
+    private void buildItemPath(Path path, int viewType, int i, RectF itemRect) {
+        float radius = mItemRadius;
+        switch (viewType) {
+            case PinEntryView.VIEW_TYPE_RECTANGLE: {
+                boolean drawRightCorner = false;
+                boolean drawLeftCorner = false;
+                if (mItemSpacing != 0) {
+                    drawLeftCorner = drawRightCorner = true;
+                } else {
+                    if (i == 0 && i != mItemCount - 1) {
+                        drawLeftCorner = true;
+                    }
+                    if (i == mItemCount - 1 && i != 0) {
+                        drawRightCorner = true;
+                    }
+                }
+                buildRoundRectPath(path, itemRect, radius, radius, drawLeftCorner, drawRightCorner);
+                break;
+            }
+            case PinEntryView.VIEW_TYPE_LINE: {
+                boolean l, r;
+                l = r = true;
+                if (mItemSpacing == 0 && mItemCount > 1) {
+                    if (i == 0) {
+                        // draw only left round
+                        r = false;
+                    } else if (i == mItemCount - 1) {
+                        // draw only right round
+                        l = false;
+                    } else {
+                        // draw rect
+                        l = r = false;
+                    }
+                }
+                float halfLineWidth = ((float) mLineWidth) / 2;
+                mLineRect.set(
+                        itemRect.left - halfLineWidth,
+                        itemRect.bottom - halfLineWidth,
+                        itemRect.right + halfLineWidth,
+                        itemRect.bottom + halfLineWidth);
+                buildRoundRectPath(path, mLineRect, radius, radius, l, r);
+                break;
+            }
+            case PinEntryView.VIEW_TYPE_CIRCLE: {
+                float cx = itemRect.left + Math.abs(itemRect.width()) / 2;
+                float cy = itemRect.top + Math.abs(itemRect.height()) / 2;
+                float circleRadius = Math.min(itemRect.width() / 2, itemRect.height() / 2);
+                path.reset();
+                path.addCircle(cx, cy, circleRadius, Path.Direction.CW);
+                break;
+            }
+            default:
+                path.reset();
+                break;
+        }
+    }
+
+    /**
+     * Builds a rounded rectangle path.
+     *
+     * @param path The path to build into
+     * @param rectF The rectangle to draw
+     * @param rx The x-radius of the rounded corners
+     * @param ry The y-radius of the rounded corners
+     * @param l Whether to round the left corners
+     * @param r Whether to round the right corners
+     */
+    static void buildRoundRectPath(Path path, RectF rectF, float rx, float ry, boolean l, boolean r) {
+        buildRoundRectPath(path, rectF, rx, ry, l, r, r, l);
+    }
+
+    /**
+     * Builds a rounded rectangle path with specific corner options.
+     *
+     * @param path The path to build into
+     * @param rectF The rectangle to draw
+     * @param rx The x-radius of the rounded corners
+     * @param ry The y-radius of the rounded corners
+     * @param tl Whether to round the top-left corner
+     * @param tr Whether to round the top-right corner
+     * @param br Whether to round the bottom-right corner
+     * @param bl Whether to round the bottom-left corner
+     */
+    static void buildRoundRectPath(Path path, RectF rectF, float rx, float ry,
+                                   boolean tl, boolean tr, boolean br, boolean bl) {
+        path.reset();
+
+        if (rectF == null) {
+            PinViewLog.e(TAG, "🚫 Invalid rectF");
+            return;
+        }
+
+        float l = rectF.left;
+        float t = rectF.top;
+        float r = rectF.right;
+        float b = rectF.bottom;
+
+        float w = r - l;
+        float h = b - t;
+
+        float lw = w - 2 * rx;// line width
+        float lh = h - 2 * ry;// line height
+
+        path.moveTo(l, t + ry);
+
+        if (tl) {
+            path.rQuadTo(0, -ry, rx, -ry);// top-left corner
+        } else {
+            path.rLineTo(0, -ry);
+            path.rLineTo(rx, 0);
+        }
+
+        path.rLineTo(lw, 0);
+
+        if (tr) {
+            path.rQuadTo(rx, 0, rx, ry);// top-right corner
+        } else {
+            path.rLineTo(rx, 0);
+            path.rLineTo(0, ry);
+        }
+
+        path.rLineTo(0, lh);
+
+        if (br) {
+            path.rQuadTo(0, ry, -rx, ry);// bottom-right corner
+        } else {
+            path.rLineTo(0, ry);
+            path.rLineTo(-rx, 0);
+        }
+
+        path.rLineTo(-lw, 0);
+
+        if (bl) {
+            path.rQuadTo(-rx, 0, -rx, -ry);// bottom-left corner
+        } else {
+            path.rLineTo(-rx, 0);
+            path.rLineTo(0, -ry);
+        }
+
+        path.rLineTo(0, -lh);
+
+        path.close();
+    }
+}
@@ -0,0 +1,342 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Immutable result of resolving a PinEntryView AttributeSet against a theme.
+ * <p>
+ * Holds only the attributes that were present, tracked in a bit mask, so applying it
+ * to a view calls exactly the setters the original XML would have triggered, in the same
+ * order, inside a single layout/invalidate batch.
+ */
+final class PinViewResolvedAttributes {
+    private static final String TAG = "PinViewResolvedAttrs";
+
+    // Styleable attributes, in the order they are applied
+    static final int VIEW_TYPE = 1;
+    static final int GRAVITY = 1 << 1;
+    static final int ITEM_COUNT = 1 << 2;
+    static final int ITEM_WIDTH = 1 << 3;
+    static final int ITEM_HEIGHT = 1 << 4;
+    static final int ITEM_RADIUS = 1 << 5;
+    static final int ITEM_SPACING = 1 << 6;
+    static final int LINE_WIDTH = 1 << 7;
+    static final int LINE_COLOR = 1 << 8;
+    static final int CURSOR_COLOR = 1 << 9;
+    static final int CURSOR_WIDTH = 1 << 10;
+    static final int HIDE_LINE_WHEN_FILLED = 1 << 11;
+    static final int AUTO_FOCUS = 1 << 12;
+    static final int ANIMATION_ENABLED = 1 << 13;
+    static final int PASSWORD_HIDDEN = 1 << 14;
+    static final int ERROR_COLOR = 1 << 15;
+    static final int ERROR_TEXT_COLOR = 1 << 16;
+    static final int ERROR_SHAKE_ENABLED = 1 << 17;
+    static final int SUCCESS_COLOR = 1 << 18;
+    static final int SUCCESS_TEXT_COLOR = 1 << 19;
+    static final int SUCCESS_ENABLED = 1 << 20;
+    static final int SUCCESS_ANIMATION_ENABLED = 1 << 21;
+    static final int ITEM_BACKGROUND_COLOR = 1 << 22;
+    static final int ERROR_BACKGROUND_COLOR = 1 << 23;
+    static final int SUCCESS_BACKGROUND_COLOR = 1 << 24;
+
+    // Standard android: attributes
+    static final int TEXT_CURSOR_COLOR = 1 << 25;
+    static final int CURSOR_VISIBLE = 1 << 26;
+
+    final int mask;
+    final boolean complete;
+
+    final int viewType;
+    final int gravity;
+    final int itemCount;
+    final int itemWidth;
+    final int itemHeight;
+    final int itemRadius;
+    final int itemSpacing;
+    final int lineWidth;
+    @Nullable
+    final ColorStateList lineColorList;
+    final int lineColor;
+    final int cursorColor;
+    final int cursorWidth;
+    final boolean hideLineWhenFilled;
+    final boolean autoFocus;
+    final boolean animationEnabled;
+    final boolean passwordHidden;
+    final int errorColor;
+    final int errorTextColor;
+    final boolean errorShakeEnabled;
+    final int successColor;
+    final int successTextColor;
+    final boolean successEnabled;
+    final boolean successAnimationEnabled;
+    final int itemBackgroundColor;
+    final int errorBackgroundColor;
+    final int successBackgroundColor;
+    final int textCursorColor;
+    final boolean cursorVisible;
+
+    /**
+     * Resolves the styleable attributes of a TypedArray plus the standard attributes
+     * found by the parser.
+     *
+     * @param context The context used for dimension defaults
+     * @param a The PinEntryView styleable TypedArray, not recycled here
+     * @param currentTextColor The view's text color, used as color fallback
+     * @param inputType The view's input type, used as passwordHidden fallback
+     * @param standard Standard attributes already resolved by the parser
+     */
+    PinViewResolvedAttributes(@NonNull Context context, @NonNull TypedArray a,
+                              int currentTextColor, int inputType, @NonNull Standard standard) {
+        int m = 0;
+        boolean ok = true;
+
+        int viewType = 0, gravity = 0, itemCount = 0, itemWidth = 0, itemHeight = 0;
+        int itemRadius = 0, itemSpacing = 0, lineWidth = 0, lineColor = 0;
+        ColorStateList lineColorList = null;
+        int cursorColor = 0, cursorWidth = 0;
+        boolean hideLineWhenFilled = false, autoFocus = false, animationEnabled = false;
+        boolean passwordHidden = false;
+        int errorColor = 0, errorTextColor = 0;
+        boolean errorShakeEnabled = false;
+        int successColor = 0, successTextColor = 0;
+        boolean successEnabled = false, successAnimationEnabled = false;
+        int itemBackgroundColor = 0, errorBackgroundColor = 0, successBackgroundColor = 0;
+
+        try {
+            if (a.hasValue(R.styleable.PinEntryView_viewType)) {
+                viewType = a.getInt(R.styleable.PinEntryView_viewType, PinEntryView.VIEW_TYPE_RECTANGLE);
+                m |= VIEW_TYPE;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_pinGravity)) {
+                gravity = a.getInt(R.styleable.PinEntryView_pinGravity, PinEntryView.GRAVITY_CENTER);
+                m |= GRAVITY;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_itemCount)) {
+                itemCount = a.getInt(R.styleable.PinEntryView_itemCount, PinEntryView.DEFAULT_COUNT);
+                m |= ITEM_COUNT;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_itemWidth)) {
+                itemWidth = a.getDimensionPixelSize(R.styleable.PinEntryView_itemWidth,
+                        PinViewUtils.dpToPx(context, 48));
+                m |= ITEM_WIDTH;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_itemHeight)) {
+                itemHeight = a.getDimensionPixelSize(R.styleable.PinEntryView_itemHeight,
+                        PinViewUtils.dpToPx(context, 48));
+                m |= ITEM_HEIGHT;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_itemRadius)) {
+                itemRadius = a.getDimensionPixelSize(R.styleable.PinEntryView_itemRadius, 0);
+                m |= ITEM_RADIUS;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_itemSpacing)) {
+                itemSpacing = a.getDimensionPixelSize(R.styleable.PinEntryView_itemSpacing,
+                        PinViewUtils.dpToPx(context, 5));
+                m |= ITEM_SPACING;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_lineWidth)) {
+                lineWidth = a.getDimensionPixelSize(R.styleable.PinEntryView_lineWidth,
+                        PinViewUtils.dpToPx(context, 2));
+                m |= LINE_WIDTH;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_lineColor)) {
+                lineColorList = getColorStateList(a, R.styleable.PinEntryView_lineColor);
+                if (lineColorList == null) {
+                    lineColor = a.getColor(R.styleable.PinEntryView_lineColor, Color.BLACK);
+                }
+                m |= LINE_COLOR;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_cursorColor)) {
+                cursorColor = a.getColor(R.styleable.PinEntryView_cursorColor, currentTextColor);
+                m |= CURSOR_COLOR;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_cursorWidth)) {
+                cursorWidth = a.getDimensionPixelSize(R.styleable.PinEntryView_cursorWidth,
+                        PinViewUtils.dpToPx(context, 2));
+                m |= CURSOR_WIDTH;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_hideLineWhenFilled)) {
+                hideLineWhenFilled = a.getBoolean(R.styleable.PinEntryView_hideLineWhenFilled, false);
+                m |= HIDE_LINE_WHEN_FILLED;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_autoFocus)) {
+                autoFocus = a.getBoolean(R.styleable.PinEntryView_autoFocus, true);
+                m |= AUTO_FOCUS;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_animationEnabled)) {
+                animationEnabled = a.getBoolean(R.styleable.PinEntryView_animationEnabled, false);
+                m |= ANIMATION_ENABLED;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_passwordHidden)) {
+                passwordHidden = a.getBoolean(R.styleable.PinEntryView_passwordHidden,
+                        PinViewUtils.isPasswordInputType(inputType));
+                m |= PASSWORD_HIDDEN;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_errorColor)) {
+                errorColor = a.getColor(R.styleable.PinEntryView_errorColor, Color.RED);
+                m |= ERROR_COLOR;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_errorTextColor)) {
+                errorTextColor = a.getColor(R.styleable.PinEntryView_errorTextColor, currentTextColor);
+                m |= ERROR_TEXT_COLOR;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_errorShakeEnabled)) {
+                errorShakeEnabled = a.getBoolean(R.styleable.PinEntryView_errorShakeEnabled, false);
+                m |= ERROR_SHAKE_ENABLED;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_successColor)) {
+                successColor = a.getColor(R.styleable.PinEntryView_successColor, Color.GREEN);
+                m |= SUCCESS_COLOR;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_successTextColor)) {
+                successTextColor = a.getColor(R.styleable.PinEntryView_successTextColor, currentTextColor);
+                m |= SUCCESS_TEXT_COLOR;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_successEnabled)) {
+                successEnabled = a.getBoolean(R.styleable.PinEntryView_successEnabled, false);
+                m |= SUCCESS_ENABLED;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_successAnimationEnabled)) {
+                successAnimationEnabled = a.getBoolean(R.styleable.PinEntryView_successAnimationEnabled, false);
+                m |= SUCCESS_ANIMATION_ENABLED;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_itemBackgroundColor)) {
+                itemBackgroundColor = a.getColor(R.styleable.PinEntryView_itemBackgroundColor, Color.TRANSPARENT);
+                m |= ITEM_BACKGROUND_COLOR;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_errorBackgroundColor)) {
+                errorBackgroundColor = a.getColor(R.styleable.PinEntryView_errorBackgroundColor, Color.RED);
+                m |= ERROR_BACKGROUND_COLOR;
+            }
+            if (a.hasValue(R.styleable.PinEntryView_successBackgroundColor)) {
+                successBackgroundColor = a.getColor(R.styleable.PinEntryView_successBackgroundColor, Color.GREEN);
+                m |= SUCCESS_BACKGROUND_COLOR;
+            }
+        } catch (Exception e) {
+            // Keep what was resolved so far, like the setters applied before the failure
+            PinViewLog.e(TAG, "⚠️ Error parsing attributes", e);
+            ok = false;
+        }
+
+        if (standard.hasTextCursorColor) {
+            m |= TEXT_CURSOR_COLOR;
+        }
+        if (standard.hasCursorVisible) {
+            m |= CURSOR_VISIBLE;
+        }
+
+        this.mask = m;
+        this.complete = ok;
+        this.viewType = viewType;
+        this.gravity = gravity;
+        this.itemCount = itemCount;
+        this.itemWidth = itemWidth;
+        this.itemHeight = itemHeight;
+        this.itemRadius = itemRadius;
+        this.itemSpacing = itemSpacing;
+        this.lineWidth = lineWidth;
+        this.lineColorList = lineColorList;
+        this.lineColor = lineColor;
+        this.cursorColor = cursorColor;
+        this.cursorWidth = cursorWidth;
+        this.hideLineWhenFilled = hideLineWhenFilled;
+        this.autoFocus = autoFocus;
+        this.animationEnabled = animationEnabled;
+        this.passwordHidden = passwordHidden;
+        this.errorColor = errorColor;
+        this.errorTextColor = errorTextColor;
+        this.errorShakeEnabled = errorShakeEnabled;
+        this.successColor = successColor;
+        this.successTextColor = successTextColor;
+        this.successEnabled = successEnabled;
+        this.successAnimationEnabled = successAnimationEnabled;
+        this.itemBackgroundColor = itemBackgroundColor;
+        this.errorBackgroundColor = errorBackgroundColor;
+        this.successBackgroundColor = successBackgroundColor;
+        this.textCursorColor = standard.textCursorColor;
+        this.cursorVisible = standard.cursorVisible;
+    }
+
+    /**
+     * Standard android: attributes resolved from the raw AttributeSet.
+     */
+    static final class Standard {
+        boolean hasTextCursorColor;
+        int textCursorColor;
+        boolean hasCursorVisible;
+        boolean cursorVisible;
+    }
+
+    private boolean has(int flag) {
+        return (mask & flag) != 0;
+    }
+
+    /**
+     * Applies the resolved attributes to a view with a single layout and invalidate pass.
+     *
+     * @param view The view to configure
+     */
+    void applyTo(@NonNull PinEntryView view) {
+        view.beginBatch();
+        try {
+            if (has(VIEW_TYPE)) view.setViewType(viewType);
+            if (has(GRAVITY)) view.setPinItemGravity(gravity);
+            if (has(ITEM_COUNT)) view.setItemCount(itemCount);
+            if (has(ITEM_WIDTH)) view.setItemWidth(itemWidth);
+            if (has(ITEM_HEIGHT)) view.setItemHeight(itemHeight);
+            if (has(ITEM_RADIUS)) view.setItemRadius(itemRadius);
+            if (has(ITEM_SPACING)) view.setItemSpacing(itemSpacing);
+            if (has(LINE_WIDTH)) view.setLineWidth(lineWidth);
+            if (has(LINE_COLOR)) {
+                if (lineColorList != null) {
+                    view.setLineColor(lineColorList);
+                } else {
+                    view.setLineColor(lineColor);
+                }
+            }
+            if (has(CURSOR_COLOR)) view.setCursorColor(cursorColor);
+            if (has(CURSOR_WIDTH)) view.setCursorWidth(cursorWidth);
+            if (has(HIDE_LINE_WHEN_FILLED)) view.setHideLineWhenFilled(hideLineWhenFilled);
+            if (has(AUTO_FOCUS)) view.setAutoFocus(autoFocus);
+            if (has(ANIMATION_ENABLED)) view.setAnimationEnabled(animationEnabled);
+            if (has(PASSWORD_HIDDEN)) view.setPasswordHidden(passwordHidden);
+            if (has(ERROR_COLOR)) view.setErrorColor(errorColor);
+            if (has(ERROR_TEXT_COLOR)) view.setErrorTextColor(errorTextColor);
+            if (has(ERROR_SHAKE_ENABLED)) view.setErrorShakeEnabled(errorShakeEnabled);
+            if (has(SUCCESS_COLOR)) view.setSuccessColor(successColor);
+            if (has(SUCCESS_TEXT_COLOR)) view.setSuccessTextColor(successTextColor);
+            if (has(SUCCESS_ENABLED)) view.setSuccessEnabled(successEnabled);
+            if (has(SUCCESS_ANIMATION_ENABLED)) view.setSuccessAnimationEnabled(successAnimationEnabled);
+            if (has(ITEM_BACKGROUND_COLOR)) view.setItemBackgroundColor(itemBackgroundColor);
+            if (has(ERROR_BACKGROUND_COLOR)) view.setErrorBackgroundColor(errorBackgroundColor);
+            if (has(SUCCESS_BACKGROUND_COLOR)) view.setSuccessBackgroundColor(successBackgroundColor);
+
+            // Cursor color often inherits text color if not explicitly set
+            if (has(TEXT_CURSOR_COLOR) && !view.isCursorColorSet()) {
+                view.setCursorColor(textCursorColor);
+            }
+            if (has(CURSOR_VISIBLE)) view.setCursorVisible(cursorVisible);
+        } finally {
+            view.endBatch();
+        }
+    }
+
+    /**
+     * Gets the attribute as a ColorStateList, or null if it cannot be read as one.
+     */
+    @Nullable
+    private static ColorStateList getColorStateList(TypedArray a, int index) {
+        try {
+            return a.getColorStateList(index);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
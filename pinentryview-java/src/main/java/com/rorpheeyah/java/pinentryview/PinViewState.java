@@ -1,10 +1,14 @@
 package com.rorpheeyah.java.pinentryview;
 
 import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
 
 /**
  * Represents different visual states for the PinEntryView.
  * This consolidates error, success, and normal states into a unified system.
+ * <p>
+ * Instances are immutable snapshots; the {@code with*} methods return a modified copy,
+ * so a state read by the drawer always matches what {@link PinViewStateManager} published.
  */
 public class PinViewState {
 
@@ -14,24 +18,38 @@ public class PinViewState {
     public enum Type {
         NORMAL,
         ERROR,
-        SUCCESS
+        SUCCESS,
+        /**
+         * Input is rejected until a lockout after too many failed attempts ends
+         */
+        LOCKED
     }
 
     // State properties
     private final Type mType;
-    private int mLineColor = -1;
-    private int mTextColor = -1;
-    private int mBackgroundColor = -1;
-    private boolean mAnimationEnabled = false;
-    private boolean mShakeEnabled = false;
+    private final int mLineColor;
+    private final int mTextColor;
+    private final int mBackgroundColor;
+    private final boolean mAnimationEnabled;
+    private final boolean mShakeEnabled;
 
     /**
-     * Creates a new PinViewState
+     * Creates a new PinViewState with no colors set and animations disabled
      *
      * @param type The state type
      */
     public PinViewState(Type type) {
+        this(type, -1, -1, -1, false, false);
+    }
+
+    private PinViewState(Type type, int lineColor, int textColor, int backgroundColor,
+                         boolean animationEnabled, boolean shakeEnabled) {
         this.mType = type;
+        this.mLineColor = lineColor;
+        this.mTextColor = textColor;
+        this.mBackgroundColor = backgroundColor;
+        this.mAnimationEnabled = animationEnabled;
+        this.mShakeEnabled = shakeEnabled;
     }
 
     /**
@@ -42,11 +60,11 @@ public class PinViewState {
     }
 
     /**
-     * Sets the line/border color for this state
+     * Returns a copy of this state with the given line/border color
      */
-    public PinViewState setLineColor(@ColorInt int color) {
-        mLineColor = color;
-        return this;
+    @NonNull
+    public PinViewState withLineColor(@ColorInt int color) {
+        return new PinViewState(mType, color, mTextColor, mBackgroundColor, mAnimationEnabled, mShakeEnabled);
     }
 
     /**
@@ -65,11 +83,11 @@ public class PinViewState {
     }
 
     /**
-     * Sets the text color for this state
+     * Returns a copy of this state with the given text color
      */
-    public PinViewState setTextColor(@ColorInt int color) {
-        mTextColor = color;
-        return this;
+    @NonNull
+    public PinViewState withTextColor(@ColorInt int color) {
+        return new PinViewState(mType, mLineColor, color, mBackgroundColor, mAnimationEnabled, mShakeEnabled);
     }
 
     /**
@@ -88,11 +106,11 @@ public class PinViewState {
     }
 
     /**
-     * Sets the background color for this state
+     * Returns a copy of this state with the given background color
      */
-    public PinViewState setBackgroundColor(@ColorInt int color) {
-        mBackgroundColor = color;
-        return this;
+    @NonNull
+    public PinViewState withBackgroundColor(@ColorInt int color) {
+        return new PinViewState(mType, mLineColor, mTextColor, color, mAnimationEnabled, mShakeEnabled);
     }
 
     /**
@@ -111,11 +129,11 @@ public class PinViewState {
     }
 
     /**
-     * Sets whether animation is enabled for this state
+     * Returns a copy of this state with animation enabled or disabled
      */
-    public PinViewState setAnimationEnabled(boolean enabled) {
-        mAnimationEnabled = enabled;
-        return this;
+    @NonNull
+    public PinViewState withAnimationEnabled(boolean enabled) {
+        return new PinViewState(mType, mLineColor, mTextColor, mBackgroundColor, enabled, mShakeEnabled);
     }
 
     /**
@@ -126,11 +144,11 @@ public class PinViewState {
     }
 
     /**
-     * Sets whether shake animation is enabled (typically for error state)
+     * Returns a copy of this state with shake animation enabled or disabled (typically for error state)
      */
-    public PinViewState setShakeEnabled(boolean enabled) {
-        mShakeEnabled = enabled;
-        return this;
+    @NonNull
+    public PinViewState withShakeEnabled(boolean enabled) {
+        return new PinViewState(mType, mLineColor, mTextColor, mBackgroundColor, mAnimationEnabled, enabled);
     }
 
     /**
@@ -145,7 +163,7 @@ public class PinViewState {
      */
     public static PinViewState createErrorState() {
         return new PinViewState(Type.ERROR)
-                .setShakeEnabled(true);
+                .withShakeEnabled(true);
     }
 
     /**
@@ -153,7 +171,14 @@ public class PinViewState {
      */
     public static PinViewState createSuccessState() {
         return new PinViewState(Type.SUCCESS)
-                .setAnimationEnabled(true);
+                .withAnimationEnabled(true);
+    }
+
+    /**
+     * Creates a default locked state
+     */
+    public static PinViewState createLockedState() {
+        return new PinViewState(Type.LOCKED);
     }
 
     /**
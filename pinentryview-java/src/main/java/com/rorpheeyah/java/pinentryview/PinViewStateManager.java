@@ -1,33 +1,66 @@
 package com.rorpheeyah.java.pinentryview;
 
+import android.content.res.ColorStateList;
 import android.graphics.Color;
-import android.util.Log;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.EnumMap;
 
 /**
  * Manages different visual states for the PinEntryView.
  * This centralizes state management and reduces code duplication.
+ * <p>
+ * States are stored as immutable {@link PinViewState} snapshots in an {@link EnumMap}.
+ * Every update replaces the snapshot (copy-on-write) and, when it targets the current
+ * state, republishes the palette and invalidates the view.
+ * <p>
+ * Also counts failed attempts. After {@link #setAttemptLimit(int, long, long) too many}
+ * the view enters {@link PinViewState.Type#LOCKED} for an exponentially growing lockout,
+ * ended by a single delayed callback rather than polling. A timed lockout cannot be left
+ * through {@link #setState(PinViewState.Type)}.
  */
 public class PinViewStateManager {
 
     private static final String TAG = "PinViewStateManager";
 
     // State storage
-    private final Map<PinViewState.Type, PinViewState> mStates = new HashMap<>();
+    private final EnumMap<PinViewState.Type, PinViewState> mStates = new EnumMap<>(PinViewState.Type.class);
     private PinViewState mCurrentState;
     private final PinEntryView mView;
 
+    // Resolved colors for the current state, rebuilt lazily after any change
+    private PinViewPalette mPalette;
+
     // Default colors for fallback
     private int mDefaultLineColor;
     private int mDefaultTextColor;
     private int mDefaultBackgroundColor;
 
+    // Attempt tracking, lockouts are disabled while mMaxAttempts is 0
+    private int mMaxAttempts;
+    private long mBaseLockoutMillis;
+    private long mMaxLockoutMillis;
+    private int mFailedAttempts;
+    private int mLockoutCount;
+    private PinAttemptStore mAttemptStore;
+
+    // The running lockout is timed on elapsedRealtime(), which the user cannot set.
+    // The wall clock deadline is only kept for PinAttemptStore, to survive the process.
+    private boolean mLockedOut;
+    private long mLockoutMillis;
+    private long mLockoutEndElapsed;
+    private long mLockedUntilMillis;
+
+    // The single scheduled callback that ends the current lockout
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mLockoutTimeout = this::onLockoutTimeout;
+
     /**
      * Creates a new state manager for the given view
      */
@@ -57,7 +90,7 @@ public class PinViewStateManager {
             mDefaultBackgroundColor = Color.TRANSPARENT;
         }
 
-        Log.d(TAG, "🎛️ StateManager initialized");
+        PinViewLog.d(TAG, "🎛️ StateManager initialized");
     }
 
     /**
@@ -68,34 +101,45 @@ public class PinViewStateManager {
             throw new IllegalArgumentException("State type mismatch: expected " + type + ", got " + state.getType());
         }
 
-        mStates.put(type, state);
-        Log.d(TAG, "🎨 Configured state: " + state);
-
-        // If this is the current state, apply it immediately  
-        if (mCurrentState.getType() == type) {
-            applyCurrentState();
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🎨 Configured state: " + state);
         }
+        putState(state);
     }
 
     /**
      * Transitions to the specified state
      */
     public void setState(@NonNull PinViewState.Type type) {
-        PinViewState newState = mStates.get(type);
-        if (newState == null) {
-            // Create default state if not configured
-            newState = createDefaultState(type);
-            mStates.put(type, newState);
-        }
-
-        if (mCurrentState.getType() != type) {
-            PinViewState.Type previousType = mCurrentState.getType();
-            mCurrentState = newState;
-
-            applyCurrentState();
-            handleStateTransition(previousType, type);
-
-            Log.d(TAG, "🔄 State transition: " + previousType + " -> " + type);
+        boolean traced = PinViewTrace.begin(PinViewTrace.SET_STATE);
+        try {
+            if (type != PinViewState.Type.LOCKED && isLockedOut()) {
+                if (PinViewLog.DBG) {
+                    PinViewLog.d(TAG, "🔒 Ignoring " + type + " during lockout");
+                }
+                return;
+            }
+
+            PinViewState newState = mStates.get(type);
+            if (newState == null) {
+                // Create default state if not configured
+                newState = createDefaultState(type);
+                mStates.put(type, newState);
+            }
+
+            if (mCurrentState.getType() != type) {
+                PinViewState.Type previousType = mCurrentState.getType();
+                mCurrentState = newState;
+
+                applyCurrentState();
+                handleStateTransition(previousType, type);
+
+                if (PinViewLog.DBG) {
+                    PinViewLog.d(TAG, "🔄 State transition: " + previousType + " -> " + type);
+                }
+            }
+        } finally {
+            PinViewTrace.end(traced);
         }
     }
 
@@ -170,12 +214,67 @@ public class PinViewStateManager {
         mDefaultLineColor = lineColor;
         mDefaultTextColor = textColor;
         mDefaultBackgroundColor = backgroundColor;
+        invalidatePalette();
+    }
+
+    /**
+     * Gets the colors resolved for the current state, rebuilding them if stale
+     */
+    @NonNull
+    public PinViewPalette getPalette() {
+        PinViewPalette palette = mPalette;
+        if (palette == null) {
+            palette = buildPalette();
+            mPalette = palette;
+        }
+        return palette;
+    }
+
+    /**
+     * Marks the resolved palette as stale. Called on state, drawable-state and color changes.
+     */
+    public void invalidatePalette() {
+        mPalette = null;
+    }
+
+    /**
+     * Resolves line, text, background and cursor colors for the current state
+     */
+    @NonNull
+    private PinViewPalette buildPalette() {
+        PinViewState.Type type = mCurrentState.getType();
+        ColorStateList lineColors = mView.getLineColors();
+        int defaultLineColor = lineColors != null ? lineColors.getDefaultColor() : mDefaultLineColor;
+        int highlightLineColor = mView.getLineColorForState(PinViewPalette.HIGHLIGHT_STATES);
+
+        int lineColor;
+        int stateLineColor = type == PinViewState.Type.NORMAL ? -1 : mView.getStateLineColor(type);
+        if (stateLineColor != -1) {
+            // Error and success colors apply to every item, highlighted or not
+            lineColor = stateLineColor;
+            highlightLineColor = stateLineColor;
+        } else if (type == PinViewState.Type.NORMAL && lineColors != null) {
+            // Normal state: use focused/unfocused colors
+            lineColor = lineColors.getColorForState(mView.getDrawableState(), defaultLineColor);
+        } else {
+            lineColor = defaultLineColor;
+        }
+
+        return new PinViewPalette(
+                type,
+                getActiveLineColor(),
+                lineColor,
+                highlightLineColor,
+                getActiveTextColor(),
+                getActiveBackgroundColor(),
+                mView.getCursorColor());
     }
 
     /**
      * Applies the current state to the view
      */
     private void applyCurrentState() {
+        invalidatePalette();
         // Update view appearance
         mView.invalidate();
     }
@@ -212,12 +311,34 @@ public class PinViewStateManager {
                 return PinViewState.createErrorState();
             case SUCCESS:
                 return PinViewState.createSuccessState();
+            case LOCKED:
+                return PinViewState.createLockedState();
             case NORMAL:
             default:
                 return PinViewState.createNormalState();
         }
     }
 
+    /**
+     * Gets the configured state for a type, or its default if not configured yet
+     */
+    @NonNull
+    private PinViewState obtainState(@NonNull PinViewState.Type type) {
+        PinViewState state = mStates.get(type);
+        return state != null ? state : createDefaultState(type);
+    }
+
+    /**
+     * Publishes a new snapshot for its state type, applying it if it is the current state
+     */
+    private void putState(@NonNull PinViewState state) {
+        mStates.put(state.getType(), state);
+        if (mCurrentState.getType() == state.getType()) {
+            mCurrentState = state;
+            applyCurrentState();
+        }
+    }
+
     /**
      * Convenience method to set error state
      */
@@ -240,6 +361,25 @@ public class PinViewStateManager {
         }
     }
 
+    /**
+     * Convenience method to set or clear the locked state. A locked state set this way has
+     * no timeout; a timed lockout can only end when it expires.
+     */
+    public void setLocked(boolean locked) {
+        if (locked) {
+            setState(PinViewState.Type.LOCKED);
+        } else if (isInState(PinViewState.Type.LOCKED)) {
+            setState(PinViewState.Type.NORMAL);
+        }
+    }
+
+    /**
+     * Checks if currently in locked state, timed or not
+     */
+    public boolean isLocked() {
+        return isInState(PinViewState.Type.LOCKED);
+    }
+
     /**
      * Checks if currently in error state
      */
@@ -321,84 +461,97 @@ public class PinViewStateManager {
      * Sets error color in the error state configuration
      */
     public void setErrorColor(@ColorInt int color) {
-        PinViewState errorState = getState(PinViewState.Type.ERROR);
-        if (errorState == null) {
-            errorState = PinViewState.createErrorState();
-            configureState(PinViewState.Type.ERROR, errorState);
-        }
-        errorState.setLineColor(color);
+        putState(obtainState(PinViewState.Type.ERROR).withLineColor(color));
     }
 
     /**
      * Sets success color in the success state configuration
      */
     public void setSuccessColor(@ColorInt int color) {
-        PinViewState successState = getState(PinViewState.Type.SUCCESS);
-        if (successState == null) {
-            successState = PinViewState.createSuccessState();
-            configureState(PinViewState.Type.SUCCESS, successState);
-        }
-        successState.setLineColor(color);
+        putState(obtainState(PinViewState.Type.SUCCESS).withLineColor(color));
     }
 
     /**
      * Sets error text color in the error state configuration
      */
     public void setErrorTextColor(@ColorInt int color) {
-        PinViewState errorState = getState(PinViewState.Type.ERROR);
-        if (errorState == null) {
-            errorState = PinViewState.createErrorState();
-            configureState(PinViewState.Type.ERROR, errorState);
-        }
-        errorState.setTextColor(color);
+        putState(obtainState(PinViewState.Type.ERROR).withTextColor(color));
     }
 
     /**
      * Sets success text color in the success state configuration
      */
     public void setSuccessTextColor(@ColorInt int color) {
-        PinViewState successState = getState(PinViewState.Type.SUCCESS);
-        if (successState == null) {
-            successState = PinViewState.createSuccessState();
-            configureState(PinViewState.Type.SUCCESS, successState);
-        }
-        successState.setTextColor(color);
+        putState(obtainState(PinViewState.Type.SUCCESS).withTextColor(color));
     }
 
     /**
      * Sets error background color in the error state configuration
      */
     public void setErrorBackgroundColor(@ColorInt int color) {
-        PinViewState errorState = getState(PinViewState.Type.ERROR);
-        if (errorState == null) {
-            errorState = PinViewState.createErrorState();
-            configureState(PinViewState.Type.ERROR, errorState);
-        }
-        errorState.setBackgroundColor(color);
+        putState(obtainState(PinViewState.Type.ERROR).withBackgroundColor(color));
     }
 
     /**
      * Sets success background color in the success state configuration
      */
     public void setSuccessBackgroundColor(@ColorInt int color) {
-        PinViewState successState = getState(PinViewState.Type.SUCCESS);
-        if (successState == null) {
-            successState = PinViewState.createSuccessState();
-            configureState(PinViewState.Type.SUCCESS, successState);
-        }
-        successState.setBackgroundColor(color);
+        putState(obtainState(PinViewState.Type.SUCCESS).withBackgroundColor(color));
+    }
+
+    /**
+     * Gets the locked color from the locked state configuration
+     */
+    @ColorInt
+    public int getLockedColor() {
+        PinViewState lockedState = getState(PinViewState.Type.LOCKED);
+        return lockedState != null && lockedState.hasLineColor() ? lockedState.getLineColor() : -1;
+    }
+
+    /**
+     * Gets the locked text color from the locked state configuration
+     */
+    @ColorInt
+    public int getLockedTextColor() {
+        PinViewState lockedState = getState(PinViewState.Type.LOCKED);
+        return lockedState != null && lockedState.hasTextColor() ? lockedState.getTextColor() : -1;
+    }
+
+    /**
+     * Gets the locked background color from the locked state configuration
+     */
+    @ColorInt
+    public int getLockedBackgroundColor() {
+        PinViewState lockedState = getState(PinViewState.Type.LOCKED);
+        return lockedState != null && lockedState.hasBackgroundColor() ? lockedState.getBackgroundColor() : -1;
+    }
+
+    /**
+     * Sets locked color in the locked state configuration
+     */
+    public void setLockedColor(@ColorInt int color) {
+        putState(obtainState(PinViewState.Type.LOCKED).withLineColor(color));
+    }
+
+    /**
+     * Sets locked text color in the locked state configuration
+     */
+    public void setLockedTextColor(@ColorInt int color) {
+        putState(obtainState(PinViewState.Type.LOCKED).withTextColor(color));
+    }
+
+    /**
+     * Sets locked background color in the locked state configuration
+     */
+    public void setLockedBackgroundColor(@ColorInt int color) {
+        putState(obtainState(PinViewState.Type.LOCKED).withBackgroundColor(color));
     }
 
     /**
      * Sets shake animation enabled for error state
      */
     public void setErrorShakeEnabled(boolean enabled) {
-        PinViewState errorState = getState(PinViewState.Type.ERROR);
-        if (errorState == null) {
-            errorState = PinViewState.createErrorState();
-            configureState(PinViewState.Type.ERROR, errorState);
-        }
-        errorState.setShakeEnabled(enabled);
+        putState(obtainState(PinViewState.Type.ERROR).withShakeEnabled(enabled));
     }
 
     /**
@@ -413,12 +566,7 @@ public class PinViewStateManager {
      * Sets success animation enabled
      */
     public void setSuccessAnimationEnabled(boolean enabled) {
-        PinViewState successState = getState(PinViewState.Type.SUCCESS);
-        if (successState == null) {
-            successState = PinViewState.createSuccessState();
-            configureState(PinViewState.Type.SUCCESS, successState);
-        }
-        successState.setAnimationEnabled(enabled);
+        putState(obtainState(PinViewState.Type.SUCCESS).withAnimationEnabled(enabled));
     }
 
     /**
@@ -428,4 +576,207 @@ public class PinViewStateManager {
         PinViewState successState = getState(PinViewState.Type.SUCCESS);
         return successState != null && successState.isAnimationEnabled();
     }
+
+    //=====================================================================
+    // ATTEMPT TRACKING
+    //=====================================================================
+
+    /**
+     * Configures lockouts. After {@code maxAttempts} consecutive failed attempts input is
+     * locked for {@code baseLockoutMillis}, doubling with every further lockout up to
+     * {@code maxLockoutMillis}, until an attempt succeeds.
+     *
+     * @param maxAttempts Failed attempts before a lockout, or 0 to never lock
+     * @param baseLockoutMillis Duration of the first lockout
+     * @param maxLockoutMillis Upper bound of the lockout duration
+     */
+    public void setAttemptLimit(int maxAttempts, long baseLockoutMillis, long maxLockoutMillis) {
+        mMaxAttempts = Math.max(maxAttempts, 0);
+        mBaseLockoutMillis = Math.max(baseLockoutMillis, 0);
+        mMaxLockoutMillis = Math.max(maxLockoutMillis, mBaseLockoutMillis);
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🔢 Attempt limit: " + mMaxAttempts + ", lockout "
+                    + mBaseLockoutMillis + "-" + mMaxLockoutMillis + "ms");
+        }
+    }
+
+    /**
+     * Sets the store the attempt counters are persisted to, and restores them from it,
+     * resuming a lockout that has not expired yet.
+     * <p>
+     * A restored lockout keeps the duration it was started with, so this doesn't depend on
+     * {@link #setAttemptLimit(int, long, long)} having been called first. The persisted
+     * deadline is wall clock time; one further away than that duration restores as the
+     * full lockout.
+     *
+     * @param store The store, or null to keep counters in memory only
+     */
+    public void setAttemptStore(@Nullable PinAttemptStore store) {
+        mAttemptStore = store;
+        if (store == null) {
+            return;
+        }
+
+        PinAttemptStore.Snapshot snapshot = store.load();
+        if (snapshot == null) {
+            return;
+        }
+        mFailedAttempts = snapshot.getFailedAttempts();
+        mLockoutCount = snapshot.getLockoutCount();
+        long lockedUntil = snapshot.getLockedUntilMillis();
+        if (lockedUntil == 0) {
+            return;
+        }
+
+        long remaining = lockedUntil - System.currentTimeMillis();
+        long duration = snapshot.getLockoutMillis();
+        if (remaining <= 0) {
+            // Expired while nobody was watching
+            saveAttempts();
+        } else if (duration > 0 && remaining > duration) {
+            // Further away than the lockout could ever be: the clock was moved back
+            // since the save, so the elapsed time is unknown. Serve the full lockout.
+            startLockout(duration, duration);
+        } else {
+            // The lockout that was running, its deadline is written back unchanged
+            startLockout(Math.max(duration, remaining), remaining);
+        }
+    }
+
+    /**
+     * Records a failed attempt, entering the error state or, once the limit is reached,
+     * a lockout. Ignored while locked out.
+     */
+    public void recordFailedAttempt() {
+        if (isLockedOut()) {
+            return;
+        }
+
+        mFailedAttempts++;
+        if (mMaxAttempts > 0 && mFailedAttempts >= mMaxAttempts) {
+            long duration = getLockoutDuration(mLockoutCount);
+            mFailedAttempts = 0;
+            mLockoutCount++;
+            startLockout(duration, duration);
+        } else {
+            saveAttempts();
+            setState(PinViewState.Type.ERROR);
+        }
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "❌ Failed attempt, count: " + mFailedAttempts + ", lockouts: " + mLockoutCount);
+        }
+    }
+
+    /**
+     * Records a successful attempt, resetting the counters and the lockout backoff.
+     */
+    public void recordSuccessfulAttempt() {
+        if (mFailedAttempts != 0 || mLockoutCount != 0) {
+            mFailedAttempts = 0;
+            mLockoutCount = 0;
+            saveAttempts();
+        }
+    }
+
+    /**
+     * Gets the failed attempts since the last success or lockout
+     */
+    public int getFailedAttempts() {
+        return mFailedAttempts;
+    }
+
+    /**
+     * Checks if a timed lockout is running
+     */
+    public boolean isLockedOut() {
+        return mLockedOut;
+    }
+
+    /**
+     * Gets the time left in the current lockout, 0 if none is running
+     */
+    public long getLockoutRemainingMillis() {
+        if (!mLockedOut) {
+            return 0;
+        }
+        long remaining = mLockoutEndElapsed - SystemClock.elapsedRealtime();
+        return Math.min(Math.max(remaining, 0), mLockoutMillis);
+    }
+
+    /**
+     * Drops the scheduled lockout callback while the view is detached, so the timer
+     * doesn't hold on to it. The lockout itself keeps running.
+     */
+    void pauseLockoutTimer() {
+        mHandler.removeCallbacks(mLockoutTimeout);
+    }
+
+    /**
+     * Reschedules the lockout callback, or ends the lockout if it expired meanwhile.
+     */
+    void resumeLockoutTimer() {
+        if (isLockedOut()) {
+            onLockoutTimeout();
+        }
+    }
+
+    /**
+     * Gets the duration of the lockout after {@code lockouts} earlier ones.
+     */
+    private long getLockoutDuration(int lockouts) {
+        long duration = mBaseLockoutMillis;
+        for (int i = 0; i < lockouts && duration < mMaxLockoutMillis; i++) {
+            duration = duration > mMaxLockoutMillis / 2 ? mMaxLockoutMillis : duration * 2;
+        }
+        return Math.min(duration, mMaxLockoutMillis);
+    }
+
+    /**
+     * Starts a lockout.
+     *
+     * @param durationMillis Full duration of the lockout, persisted with it
+     * @param remainingMillis Time until it ends, less than the duration when restored
+     */
+    private void startLockout(long durationMillis, long remainingMillis) {
+        mLockedOut = true;
+        mLockoutMillis = durationMillis;
+        mLockoutEndElapsed = SystemClock.elapsedRealtime() + remainingMillis;
+        mLockedUntilMillis = System.currentTimeMillis() + remainingMillis;
+        saveAttempts();
+        scheduleLockoutTimeout();
+        setState(PinViewState.Type.LOCKED);
+        mView.onLockoutChanged(true, remainingMillis);
+        if (PinViewLog.DBG) {
+            PinViewLog.d(TAG, "🔒 Locked out for " + remainingMillis + "ms");
+        }
+    }
+
+    private void scheduleLockoutTimeout() {
+        mHandler.removeCallbacks(mLockoutTimeout);
+        mHandler.postDelayed(mLockoutTimeout, getLockoutRemainingMillis());
+    }
+
+    private void onLockoutTimeout() {
+        if (getLockoutRemainingMillis() > 0) {
+            // Woke up early, e.g. after being resumed
+            scheduleLockoutTimeout();
+            return;
+        }
+
+        mLockedOut = false;
+        mLockoutMillis = 0;
+        mLockoutEndElapsed = 0;
+        mLockedUntilMillis = 0;
+        saveAttempts();
+        setState(PinViewState.Type.NORMAL);
+        mView.onLockoutChanged(false, 0);
+        PinViewLog.d(TAG, "🔓 Lockout ended");
+    }
+
+    private void saveAttempts() {
+        if (mAttemptStore != null) {
+            mAttemptStore.save(new PinAttemptStore.Snapshot(mFailedAttempts, mLockoutCount,
+                    mLockedUntilMillis, mLockoutMillis));
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package com.rorpheeyah.java.pinentryview;
+
+import androidx.annotation.NonNull;
+
+import java.nio.Buffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Reusable character buffer holding PIN text: the transformed text, and the completed PIN
+ * handed to {@link PinEntryView.OnSecurePinEnteredListener}.
+ * <p>
+ * Updated in place from {@code onTextChanged} instead of rebuilding a String of the whole
+ * PIN on every keystroke, so typing does not allocate and does not leave copies of the
+ * PIN on the heap. Storage only grows; replaced storage is zeroed before it is dropped.
+ * <p>
+ * Implements CharSequence for reading; {@link #toString()} and {@link #subSequence(int, int)}
+ * allocate and are meant for callers that explicitly need a copy.
+ */
+final class PinViewTextBuffer implements CharSequence {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private char[] mChars;
+    private int mLength;
+
+    // Reusable view over mChars, re-wrapped only when the storage grows
+    private CharBuffer mCharBuffer;
+
+    PinViewTextBuffer(int capacity) {
+        mChars = new char[Math.max(capacity, INITIAL_CAPACITY)];
+    }
+
+    /**
+     * Replaces {@code before} characters at {@code start} with {@code after} characters of
+     * {@code source} starting at the same index, mirroring the arguments of
+     * {@code TextWatcher.onTextChanged}.
+     *
+     * @param source The text after the change
+     * @param start The index of the change
+     * @param before The number of characters replaced
+     * @param after The number of characters inserted
+     * @return False if the change does not fit the current contents, in which case
+     * the buffer is left untouched and should be reset with {@link #set(CharSequence)}
+     */
+    boolean replace(@NonNull CharSequence source, int start, int before, int after) {
+        if (start < 0 || before < 0 || after < 0 || start + before > mLength
+                || mLength - before + after != source.length()) {
+            return false;
+        }
+
+        int newLength = mLength - before + after;
+        ensureCapacity(newLength);
+        if (before != after) {
+            System.arraycopy(mChars, start + before, mChars, start + after, mLength - start - before);
+        }
+        for (int i = 0; i < after; i++) {
+            mChars[start + i] = source.charAt(start + i);
+        }
+        if (newLength < mLength) {
+            Arrays.fill(mChars, newLength, mLength, '\0');
+        }
+        mLength = newLength;
+        return true;
+    }
+
+    /**
+     * Replaces the whole contents.
+     *
+     * @param source The new contents, or null to clear
+     */
+    void set(CharSequence source) {
+        int newLength = source != null ? source.length() : 0;
+        ensureCapacity(newLength);
+        for (int i = 0; i < newLength; i++) {
+            mChars[i] = source.charAt(i);
+        }
+        if (newLength < mLength) {
+            Arrays.fill(mChars, newLength, mLength, '\0');
+        }
+        mLength = newLength;
+    }
+
+    /**
+     * Zeroes the whole storage and empties the buffer.
+     */
+    void wipe() {
+        Arrays.fill(mChars, '\0');
+        mLength = 0;
+    }
+
+    /**
+     * Gets a CharBuffer over the storage covering the current contents. The buffer has
+     * an accessible array and is only valid until the contents change.
+     *
+     * @return The reused CharBuffer, positioned at 0 with the limit at {@link #length()}
+     */
+    @NonNull
+    CharBuffer asCharBuffer() {
+        if (mCharBuffer == null || mCharBuffer.array() != mChars) {
+            mCharBuffer = CharBuffer.wrap(mChars);
+        }
+        // Call through Buffer, the covariant CharBuffer overrides don't exist before API 34
+        ((Buffer) mCharBuffer).clear();
+        ((Buffer) mCharBuffer).limit(mLength);
+        return mCharBuffer;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > mChars.length) {
+            char[] chars = Arrays.copyOf(mChars, Math.max(capacity, mChars.length * 2));
+            Arrays.fill(mChars, '\0');
+            mChars = chars;
+        }
+    }
+
+    @Override
+    public int length() {
+        return mLength;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= mLength) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + mLength);
+        }
+        return mChars[index];
+    }
+
+    @NonNull
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > mLength || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + mLength);
+        }
+        return new String(mChars, start, end - start);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return new String(mChars, 0, mLength);
+    }
+}
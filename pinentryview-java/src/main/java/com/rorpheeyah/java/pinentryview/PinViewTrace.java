@@ -0,0 +1,99 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+
+import androidx.annotation.NonNull;
+import androidx.tracing.Trace;
+
+/**
+ * Systrace/Perfetto sections for the library's hot paths.
+ * <p>
+ * Sections are only emitted when tracing is switched on with
+ * {@link PinEntryView#setTracingEnabled(boolean)} and a trace is being captured, so the
+ * disabled cost is a field read. {@link #begin(String)} returns whether a section was
+ * opened, which callers hand back to {@link #end(boolean)} to keep sections balanced
+ * even if the toggle flips in between.
+ */
+final class PinViewTrace {
+
+    static final String ON_DRAW = "PinEntryView#onDraw";
+    static final String ON_MEASURE = "PinEntryView#onMeasure";
+    static final String ON_TEXT_CHANGED = "PinEntryView#onTextChanged";
+    static final String PARSE_ATTRIBUTES = "PinViewAttributeParser#parseAttributes";
+    static final String REFLECTION = "PinEntryView#setInvisibleTextHandlesViaReflection";
+    static final String SET_STATE = "PinViewStateManager#setState";
+
+    // Async sections, one per running animation of a view
+    static final String ADD_ANIMATION = "PinEntryView:addAnimation";
+    static final String SHAKE_ANIMATION = "PinEntryView:shakeAnimation";
+    static final String SUCCESS_ANIMATION = "PinEntryView:successAnimation";
+    static final String REVEAL_ANIMATION = "PinEntryView:revealAnimation";
+
+    private static volatile boolean sEnabled;
+
+    private PinViewTrace() {
+    }
+
+    static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Opens a synchronous section if tracing is enabled.
+     *
+     * @param section The section name
+     * @return True if a section was opened and must be closed with {@link #end(boolean)}
+     */
+    static boolean begin(@NonNull String section) {
+        if (sEnabled && Trace.isEnabled()) {
+            Trace.beginSection(section);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Closes the section opened by the matching {@link #begin(String)}.
+     *
+     * @param begun The value returned by {@link #begin(String)}
+     */
+    static void end(boolean begun) {
+        if (begun) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Wraps every run of an animator in an async section.
+     *
+     * @param animator The animator to trace
+     * @param section The async section name
+     * @param cookie Identifies the section among concurrent ones with the same name
+     */
+    static void traceAsync(@NonNull Animator animator, @NonNull String section, int cookie) {
+        animator.addListener(new AnimatorListenerAdapter() {
+            private boolean mBegun;
+
+            @Override
+            public void onAnimationStart(Animator animation) {
+                if (!mBegun && sEnabled && Trace.isEnabled()) {
+                    Trace.beginAsyncSection(section, cookie);
+                    mBegun = true;
+                }
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (mBegun) {
+                    Trace.endAsyncSection(section, cookie);
+                    mBegun = false;
+                }
+            }
+        });
+    }
+}
@@ -3,7 +3,6 @@ package com.rorpheeyah.java.pinentryview;
 import android.content.Context;
 import android.os.Build;
 import android.text.InputType;
-import android.util.Log;
 import android.view.Gravity;
 import android.view.inputmethod.EditorInfo;
 import android.widget.EditText;
@@ -29,7 +28,7 @@ public class PinViewUtils {
         try {
             return (int) (dp * context.getResources().getDisplayMetrics().density + 0.5f);
         } catch (Exception e) {
-            Log.e(TAG, "⚠️ Error converting dp to px", e);
+            PinViewLog.e(TAG, "⚠️ Error converting dp to px", e);
             return (int) dp;
         }
     }
@@ -74,9 +73,9 @@ public class PinViewUtils {
             // Center text
             editText.setGravity(Gravity.CENTER);
 
-            Log.d(TAG, "🛠️ Base settings applied to EditText");
+            PinViewLog.d(TAG, "🛠️ Base settings applied to EditText");
         } catch (Exception e) {
-            Log.e(TAG, "⚠️ Error applying base settings", e);
+            PinViewLog.e(TAG, "⚠️ Error applying base settings", e);
         }
     }
 }
@@ -0,0 +1,118 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.OperationCanceledException;
+import android.text.TextUtils;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs a {@link PinVerifier} for a PinEntryView and posts the result back.
+ * <p>
+ * Every run gets a generation number; starting a new run or canceling bumps it, so a result
+ * arriving for an older generation is dropped even if the verifier ignored its
+ * CancellationSignal. A verifier that throws reports an error rather than a wrong PIN, so
+ * e.g. a KeyStore failure does not count as a failed attempt.
+ */
+@MainThread
+final class PinViewVerification {
+    private static final String TAG = "PinViewVerification";
+
+    private final PinEntryView mView;
+    private final PinVerifier mVerifier;
+    private final Executor mExecutor;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    private int mGeneration;
+    private CancellationSignal mSignal;
+
+    PinViewVerification(@NonNull PinEntryView view, @NonNull PinVerifier verifier,
+                        @NonNull Executor executor) {
+        mView = view;
+        mVerifier = verifier;
+        mExecutor = executor;
+    }
+
+    /**
+     * Starts verifying a PIN, canceling any run in flight.
+     *
+     * @param text The PIN, copied before this method returns
+     */
+    void start(@NonNull CharSequence text) {
+        cancel();
+
+        final char[] pin = new char[text.length()];
+        TextUtils.getChars(text, 0, pin.length, pin, 0);
+        final int generation = mGeneration;
+        final CancellationSignal signal = new CancellationSignal();
+        mSignal = signal;
+
+        try {
+            mExecutor.execute(() -> {
+                boolean verified = false;
+                RuntimeException error = null;
+                try {
+                    if (!signal.isCanceled()) {
+                        verified = mVerifier.verify(pin, signal);
+                    }
+                } catch (OperationCanceledException e) {
+                    PinViewLog.d(TAG, "🛑 Verification canceled");
+                } catch (RuntimeException e) {
+                    PinViewLog.e(TAG, "⚠️ Error verifying PIN", e);
+                    error = e;
+                } finally {
+                    Arrays.fill(pin, '\0');
+                }
+
+                final boolean result = verified;
+                final RuntimeException failure = error;
+                mMainHandler.post(() -> deliver(generation, signal, result, failure));
+            });
+            PinViewLog.d(TAG, "🔑 Verification started");
+        } catch (RejectedExecutionException e) {
+            PinViewLog.e(TAG, "🚫 Verification rejected by executor", e);
+            Arrays.fill(pin, '\0');
+            mSignal = null;
+        }
+    }
+
+    /**
+     * Cancels the run in flight, if any. Its result will be dropped.
+     */
+    void cancel() {
+        mGeneration++;
+        if (mSignal != null) {
+            mSignal.cancel();
+            mSignal = null;
+        }
+    }
+
+    /**
+     * Checks if a verification is in flight.
+     */
+    boolean isRunning() {
+        return mSignal != null;
+    }
+
+    private void deliver(int generation, @NonNull CancellationSignal signal, boolean verified,
+                         @Nullable RuntimeException error) {
+        if (generation != mGeneration || signal.isCanceled()) {
+            PinViewLog.v(TAG, "⏭️ Dropping stale verification result");
+            return;
+        }
+        mSignal = null;
+        if (error != null) {
+            mView.onPinVerificationFailed(error);
+        } else {
+            mView.onPinVerified(verified);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.rorpheeyah.java.pinentryview;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures heap allocation and wall time per operation on the current thread.
+ * <p>
+ * Allocation is read from the HotSpot per-thread allocation counter, so it covers
+ * everything the operation allocates on the JVM, Robolectric shadows included.
+ * Thresholds have defaults in the tests and can be overridden from the command line
+ * with {@code -Dpinview.perf.<name>.maxBytes=...} and {@code -Dpinview.perf.<name>.maxNanos=...}.
+ * <p>
+ * Allocation is deterministic and always enforced. Wall time depends on the machine, so it
+ * is only reported unless enabled with {@code -Dpinview.perf.checkTime=true} or a
+ * per-operation {@code maxNanos} override.
+ */
+final class PerfMeter {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int TIMED_ROUNDS = 5;
+    private static final String CHECK_TIME_PROPERTY = "pinview.perf.checkTime";
+
+    private PerfMeter() {
+    }
+
+    /**
+     * Result of measuring one operation.
+     */
+    static final class Result {
+        final String name;
+        final long bytesPerOp;
+        final long nanosPerOp;
+
+        Result(String name, long bytesPerOp, long nanosPerOp) {
+            this.name = name;
+            this.bytesPerOp = bytesPerOp;
+            this.nanosPerOp = nanosPerOp;
+        }
+
+        /**
+         * Fails if the allocation or wall time per operation exceeds its threshold.
+         *
+         * @param defaultMaxBytes Default allocation threshold in bytes per operation
+         * @param defaultMaxNanos Default wall time threshold in nanoseconds per operation,
+         *                        only enforced when wall time checks are enabled
+         */
+        void assertWithin(long defaultMaxBytes, long defaultMaxNanos) {
+            String nanosProperty = "pinview.perf." + name + ".maxNanos";
+            long maxBytes = Long.getLong("pinview.perf." + name + ".maxBytes", defaultMaxBytes);
+            long maxNanos = Long.getLong(nanosProperty, defaultMaxNanos);
+            boolean checkTime = Boolean.getBoolean(CHECK_TIME_PROPERTY)
+                    || System.getProperty(nanosProperty) != null;
+            System.out.println(String.format(Locale.US,
+                    "[perf] %-20s %10d B/op (max %d) %12d ns/op (max %d%s)",
+                    name, bytesPerOp, maxBytes, nanosPerOp, maxNanos, checkTime ? "" : ", unchecked"));
+
+            assertTrue(name + " allocated " + bytesPerOp + " B/op, threshold " + maxBytes,
+                    bytesPerOp <= maxBytes);
+            if (checkTime) {
+                assertTrue(name + " took " + nanosPerOp + " ns/op, threshold " + maxNanos,
+                        nanosPerOp <= maxNanos);
+            }
+        }
+    }
+
+    /**
+     * Runs an operation repeatedly and measures it after warming up.
+     * <p>
+     * Allocation is the minimum over the timed rounds and wall time the median, which
+     * keeps one-off JIT and GC noise out of the numbers.
+     *
+     * @param name The operation name, also used for threshold overrides
+     * @param iterations The number of operations per round
+     * @param op The operation to measure
+     * @return The measured result
+     */
+    static Result measure(String name, int iterations, Runnable op) {
+        com.sun.management.ThreadMXBean bean = threadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int i = 0; i < iterations; i++) {
+                op.run();
+            }
+        }
+
+        long minBytes = Long.MAX_VALUE;
+        long[] nanos = new long[TIMED_ROUNDS];
+        for (int round = 0; round < TIMED_ROUNDS; round++) {
+            long startBytes = bean.getThreadAllocatedBytes(threadId);
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                op.run();
+            }
+            nanos[round] = System.nanoTime() - startNanos;
+            long bytes = bean.getThreadAllocatedBytes(threadId) - startBytes;
+            minBytes = Math.min(minBytes, bytes);
+        }
+
+        Arrays.sort(nanos);
+        return new Result(name, minBytes / iterations, nanos[TIMED_ROUNDS / 2] / iterations);
+    }
+
+    /**
+     * Gets the HotSpot thread bean, skipping the test on JVMs without allocation counters.
+     */
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue("Thread allocation counters not available",
+                bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean hotspotBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue("Thread allocation counters not supported",
+                hotspotBean.isThreadAllocatedMemorySupported());
+        if (!hotspotBean.isThreadAllocatedMemoryEnabled()) {
+            hotspotBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return hotspotBean;
+    }
+}
@@ -0,0 +1,133 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.util.AttributeSet;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that PinEntryView can be constructed off the main thread, as with
+ * AsyncLayoutInflater, and finishes its main-thread setup on the first attach.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {28, 34})
+public class PinEntryViewAsyncInflationTest {
+
+    private ActivityController<Activity> mController;
+    private Context mContext;
+    private ExecutorService mExecutor;
+
+    @Before
+    public void setUp() {
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        mContext = new ContextThemeWrapper(mController.get(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+        // A plain worker thread has no Looper, like AsyncLayoutInflater's
+        mExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        mExecutor.shutdown();
+        mExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        mController.pause().stop().destroy();
+        PinViewBlinkClock.reset();
+    }
+
+    @Test
+    public void constructOnBackgroundThread() throws Exception {
+        PinEntryView view = constructInBackground();
+
+        assertNotNull(view);
+        assertEquals(4, view.getItemCount());
+        assertEquals(PinEntryView.VIEW_TYPE_LINE, view.getViewType());
+        assertTrue(view.isAnimationEnabled());
+        // Main-thread setup has not run yet
+        assertFalse(view.hasOnClickListeners());
+    }
+
+    @Test
+    public void firstAttachCompletesSetup() throws Exception {
+        PinEntryView view = constructInBackground();
+
+        attach(view);
+
+        assertTrue(view.hasOnClickListeners());
+        view.requestFocus();
+        view.setText("12");
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals("12", view.getText().toString());
+    }
+
+    @Test
+    public void clickListenerSetBeforeAttachIsKept() throws Exception {
+        PinEntryView view = constructInBackground();
+        View.OnClickListener listener = v -> { };
+        view.setOnClickListener(listener);
+
+        attach(view);
+
+        assertSame(listener, getClickListener(view));
+    }
+
+    @Test
+    public void reattachDoesNotRepeatSetup() throws Exception {
+        PinEntryView view = constructInBackground();
+        attach(view);
+        View.OnClickListener listener = getClickListener(view);
+
+        mController.get().setContentView(new View(mContext));
+        attach(view);
+
+        assertSame(listener, getClickListener(view));
+    }
+
+    private PinEntryView constructInBackground() throws Exception {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.itemCount, "4")
+                .addAttribute(R.attr.viewType, "line")
+                .addAttribute(R.attr.lineColor, "#757575")
+                .addAttribute(R.attr.animationEnabled, "true")
+                .build();
+
+        Future<PinEntryView> future = mExecutor.submit(() -> {
+            assertFalse(Looper.getMainLooper().isCurrentThread());
+            return new PinEntryView(mContext, attrs);
+        });
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    private void attach(PinEntryView view) {
+        mController.get().setContentView(view);
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static View.OnClickListener getClickListener(View view) {
+        Object listenerInfo = ReflectionHelpers.getField(view, "mListenerInfo");
+        return ReflectionHelpers.getField(listenerInfo, "mOnClickListener");
+    }
+}
@@ -0,0 +1,240 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.view.ContextThemeWrapper;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that codes arriving in bulk, through an IME batch edit or a single paste,
+ * cost one pass: coalesced invalidations, one animation and one completion.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PinEntryViewBatchInputTest {
+
+    private static final int ITEM_COUNT = 6;
+    private static final String PIN = "123456";
+
+    // ADD_ANIMATION_DURATION and REVEAL_STAGGER_DELAY in PinEntryView
+    private static final long ADD_DURATION = 150;
+    private static final long STAGGER = 50;
+
+    private ActivityController<Activity> mController;
+    private CountingPinEntryView mView;
+    private ShadowLooper mLooper;
+    private final List<String> mCompletions = new ArrayList<>();
+    private int mAddAnimationStarts;
+
+    @Before
+    public void setUp() {
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        Context context = new ContextThemeWrapper(mController.get(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+        mView = new CountingPinEntryView(context);
+        mView.setItemCount(ITEM_COUNT);
+        mView.setAnimationEnabled(true);
+        mView.setOnPinEnteredListener(mCompletions::add);
+
+        // Attached, so the main-thread setup with the animators has run
+        mController.get().setContentView(mView);
+        mLooper = shadowOf(Looper.getMainLooper());
+        mLooper.idle();
+        assertTrue(mView.requestFocus());
+        mLooper.idle();
+
+        ValueAnimator addAnimator = ReflectionHelpers.getField(mView, "mDefaultAddAnimator");
+        assertNotNull(addAnimator);
+        addAnimator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                mAddAnimationStarts++;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        mController.pause().stop().destroy();
+        PinViewBlinkClock.reset();
+    }
+
+    @Test
+    public void batchedCommitsCoalesceInvalidations() {
+        InputConnection ic = mView.onCreateInputConnection(new EditorInfo());
+
+        // One commit per character without a surrounding batch, for comparison
+        mView.resetCounts();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ic.commitText(PIN.substring(i, i + 1), 1);
+        }
+        int unbatched = mView.invalidations;
+        clear(ic);
+
+        mView.resetCounts();
+        ic.beginBatchEdit();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ic.commitText(PIN.substring(i, i + 1), 1);
+        }
+        ic.endBatchEdit();
+
+        // Ours at the end of the batch, plus TextView's own update after it
+        assertTrue("batched: " + mView.invalidations, mView.invalidations <= 2);
+        assertTrue("unbatched: " + unbatched, unbatched >= ITEM_COUNT);
+        assertEquals(PIN, mView.getText().toString());
+    }
+
+    @Test
+    public void batchedCommitsCompleteOnce() {
+        InputConnection ic = mView.onCreateInputConnection(new EditorInfo());
+
+        // The IME corrects the last digit inside the batch: full length is reached twice
+        ic.beginBatchEdit();
+        ic.commitText(PIN, 1);
+        ic.deleteSurroundingText(1, 0);
+        ic.commitText("9", 1);
+        assertEquals(0, mCompletions.size());
+        ic.endBatchEdit();
+
+        assertEquals(1, mCompletions.size());
+        assertEquals("123459", mCompletions.get(0));
+    }
+
+    @Test
+    public void batchedCommitsStartOneReveal() {
+        mView.setBulkRevealAnimationEnabled(true);
+        InputConnection ic = mView.onCreateInputConnection(new EditorInfo());
+
+        ic.beginBatchEdit();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ic.commitText(PIN.substring(i, i + 1), 1);
+        }
+        assertNull(ReflectionHelpers.getField(mView, "mRevealAnimator"));
+        ic.endBatchEdit();
+
+        assertRevealRunning();
+        assertEquals(0, mAddAnimationStarts);
+    }
+
+    @Test
+    public void singleCharacterBatchUsesAddAnimation() {
+        mView.setBulkRevealAnimationEnabled(true);
+        InputConnection ic = mView.onCreateInputConnection(new EditorInfo());
+
+        ic.beginBatchEdit();
+        ic.commitText("1", 1);
+        ic.endBatchEdit();
+
+        assertEquals(1, mAddAnimationStarts);
+        assertNull(ReflectionHelpers.getField(mView, "mRevealAnimator"));
+    }
+
+    @Test
+    public void pasteStartsOneReveal() {
+        mView.setBulkRevealAnimationEnabled(true);
+        mView.resetCounts();
+
+        mView.getText().replace(0, mView.getLength(), PIN);
+
+        assertRevealRunning();
+        assertEquals(0, mAddAnimationStarts);
+        assertEquals(1, mCompletions.size());
+        // One range invalidation for the pasted items, plus TextView's own
+        assertTrue("invalidations: " + mView.invalidations, mView.invalidations <= 3);
+    }
+
+    @Test
+    public void pasteWithoutRevealSkipsAddAnimation() {
+        mView.getText().replace(0, mView.getLength(), PIN);
+
+        assertEquals(0, mAddAnimationStarts);
+        assertNull(ReflectionHelpers.getField(mView, "mRevealAnimator"));
+        assertEquals(1, mCompletions.size());
+    }
+
+    /**
+     * Checks that the reveal runs over all items, one stagger step apart, and ends.
+     */
+    private void assertRevealRunning() {
+        ValueAnimator reveal = ReflectionHelpers.getField(mView, "mRevealAnimator");
+        assertNotNull(reveal);
+        assertTrue(reveal.isStarted());
+        long duration = ADD_DURATION + STAGGER * (ITEM_COUNT - 1);
+        assertEquals(duration, reveal.getDuration());
+
+        // The first item has finished scaling in once the last one starts
+        mLooper.idleFor(ADD_DURATION, TimeUnit.MILLISECONDS);
+        assertEquals(1f, mView.getRevealScale(0), 0.05f);
+        assertTrue(mView.getRevealScale(ITEM_COUNT - 1) < 0.6f);
+
+        mLooper.idleFor(duration, TimeUnit.MILLISECONDS);
+        assertFalse(reveal.isRunning());
+        assertEquals(1f, mView.getRevealScale(ITEM_COUNT - 1), 0f);
+    }
+
+    private void clear(InputConnection ic) {
+        ic.beginBatchEdit();
+        ic.deleteSurroundingText(mView.getLength(), 0);
+        ic.endBatchEdit();
+        assertEquals(0, mView.getLength());
+        mCompletions.clear();
+    }
+
+    /**
+     * Counts the full and partial invalidations that reach {@link android.view.View},
+     * i.e. those PinEntryView does not defer to the end of a batch.
+     */
+    private static final class CountingPinEntryView extends PinEntryView {
+        int invalidations;
+
+        CountingPinEntryView(Context context) {
+            super(context);
+        }
+
+        void resetCounts() {
+            invalidations = 0;
+        }
+
+        @Override
+        public void invalidate() {
+            if (!isBatching()) {
+                invalidations++;
+            }
+            super.invalidate();
+        }
+
+        @SuppressWarnings("deprecation")
+        @Override
+        public void invalidate(int l, int t, int r, int b) {
+            invalidations++;
+            super.invalidate(l, t, r, b);
+        }
+    }
+}
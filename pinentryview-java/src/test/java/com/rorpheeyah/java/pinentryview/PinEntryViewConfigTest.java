@@ -0,0 +1,124 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Color;
+import android.view.ContextThemeWrapper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that {@link PinEntryView#applyConfig(PinEntryViewConfig)} costs at most one
+ * layout request and one invalidation, however many values change.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PinEntryViewConfigTest {
+
+    private ActivityController<Activity> mController;
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        mContext = new ContextThemeWrapper(mController.get(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+    }
+
+    @After
+    public void tearDown() {
+        mController.pause().stop().destroy();
+    }
+
+    @Test
+    public void applyConfigCoalescesLayoutAndInvalidation() {
+        CountingPinEntryView view = new CountingPinEntryView(mContext);
+        view.setItemCount(4);
+        view.resetCounts();
+
+        view.edit()
+                .setItemCount(6)
+                .setItemWidth(64)
+                .setItemSpacing(12)
+                .setItemRadius(10)
+                .setLineColor(Color.BLUE)
+                .setErrorColor(Color.MAGENTA)
+                .apply();
+
+        assertEquals(1, view.layoutRequests);
+        assertEquals(1, view.invalidations);
+        assertEquals(6, view.getItemCount());
+        assertEquals(64, view.getItemWidth());
+        assertEquals(12, view.getItemSpacing());
+        assertEquals(10, view.getItemRadius());
+        assertEquals(Color.MAGENTA, view.getErrorColor());
+    }
+
+    @Test
+    public void applyUnchangedConfigIsFree() {
+        CountingPinEntryView view = new CountingPinEntryView(mContext);
+        view.resetCounts();
+
+        view.applyConfig(view.getConfig());
+
+        assertEquals(0, view.layoutRequests);
+        assertEquals(0, view.invalidations);
+    }
+
+    @Test
+    public void setterCallsWithoutBatchAreNotCoalesced() {
+        CountingPinEntryView view = new CountingPinEntryView(mContext);
+        view.resetCounts();
+
+        view.setItemCount(6);
+        view.setItemWidth(64);
+        view.setItemSpacing(12);
+
+        // Sanity check for the counting itself
+        assertTrue(view.layoutRequests >= 3);
+    }
+
+    /**
+     * Counts the layout requests and invalidations that reach {@link android.view.View},
+     * i.e. those PinEntryView does not defer to the end of a batch.
+     */
+    private static final class CountingPinEntryView extends PinEntryView {
+        int layoutRequests;
+        int invalidations;
+
+        CountingPinEntryView(Context context) {
+            super(context);
+        }
+
+        void resetCounts() {
+            layoutRequests = 0;
+            invalidations = 0;
+        }
+
+        @Override
+        public void requestLayout() {
+            if (!isBatching()) {
+                layoutRequests++;
+            }
+            super.requestLayout();
+        }
+
+        @Override
+        public void invalidate() {
+            if (!isBatching()) {
+                invalidations++;
+            }
+            super.invalidate();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.InputFilter;
+import android.view.ContextThemeWrapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies failed attempt counting and timed lockouts: the backoff, the lock on state and
+ * input, the timer, and restoring from a {@link PinAttemptStore}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PinEntryViewLockoutTest {
+
+    private static final int ITEM_COUNT = 4;
+
+    private ActivityController<Activity> mController;
+    private PinEntryView mView;
+    private ShadowLooper mLooper;
+
+    // Lockout durations reported to the listener, -1 for every lockout end
+    private final List<Long> mLockouts = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        Context context = new ContextThemeWrapper(mController.get(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+        mView = new PinEntryView(context);
+        mView.setItemCount(ITEM_COUNT);
+        mView.setAnimationEnabled(false);
+        mView.setErrorShakeEnabled(false);
+        mView.setOnLockoutListener((locked, remainingMillis) ->
+                mLockouts.add(locked ? remainingMillis : -1L));
+        mLooper = shadowOf(Looper.getMainLooper());
+    }
+
+    @After
+    public void tearDown() {
+        mController.pause().stop().destroy();
+        PinViewBlinkClock.reset();
+    }
+
+    @Test
+    public void lockoutDoublesUpToTheCap() {
+        mView.setAttemptLimit(2, 1000, 5000);
+
+        long[] expected = {1000, 2000, 4000, 5000, 5000};
+        for (long duration : expected) {
+            mView.recordFailedAttempt();
+            assertFalse(mView.isLockedOut());
+            mView.recordFailedAttempt();
+            assertTrue(mView.isLockedOut());
+            assertEquals(duration, mView.getLockoutRemainingMillis());
+
+            mLooper.idleFor(duration, TimeUnit.MILLISECONDS);
+            assertFalse(mView.isLockedOut());
+        }
+
+        assertEquals(Arrays.asList(1000L, -1L, 2000L, -1L, 4000L, -1L, 5000L, -1L, 5000L, -1L), mLockouts);
+    }
+
+    @Test
+    public void successResetsBackoff() {
+        mView.setAttemptLimit(1, 1000, 8000);
+        mView.recordFailedAttempt();
+        mLooper.idleFor(1000, TimeUnit.MILLISECONDS);
+
+        mView.recordSuccessfulAttempt();
+        mView.recordFailedAttempt();
+
+        assertEquals(1000, mView.getLockoutRemainingMillis());
+    }
+
+    @Test
+    public void timerEndsLockout() {
+        mView.setAttemptLimit(1, 3000, 3000);
+        mView.recordFailedAttempt();
+        assertEquals(PinViewState.Type.LOCKED, mView.getState());
+
+        mLooper.idleFor(2999, TimeUnit.MILLISECONDS);
+        assertTrue(mView.isLockedOut());
+        assertEquals(1, mView.getLockoutRemainingMillis());
+
+        mLooper.idleFor(1, TimeUnit.MILLISECONDS);
+        assertFalse(mView.isLockedOut());
+        assertEquals(0, mView.getLockoutRemainingMillis());
+        assertEquals(PinViewState.Type.NORMAL, mView.getState());
+        assertEquals(Arrays.asList(3000L, -1L), mLockouts);
+    }
+
+    @Test
+    public void setStateIsRefusedDuringLockout() {
+        mView.setAttemptLimit(1, 1000, 1000);
+        mView.recordFailedAttempt();
+
+        mView.setState(PinViewState.Type.NORMAL);
+        mView.setState(PinViewState.Type.ERROR);
+        mView.setState(PinViewState.Type.SUCCESS);
+        // Further failures are ignored while locked
+        mView.recordFailedAttempt();
+
+        assertEquals(PinViewState.Type.LOCKED, mView.getState());
+        assertEquals(1000, mView.getLockoutRemainingMillis());
+    }
+
+    @Test
+    public void lockFilterRejectsInputButNotWipe() {
+        mView.setAttemptLimit(1, 1000, 1000);
+        Editable text = mView.getText();
+        text.append("12");
+
+        mView.recordFailedAttempt();
+
+        // The lockout wipe went through the lock filter and zeroed the storage
+        assertEquals(0, mView.getLength());
+        char[] storage = ReflectionHelpers.getField(text, "mText");
+        for (char c : storage) {
+            assertTrue("PIN digit left in storage: " + c, c != '1' && c != '2');
+        }
+
+        text.append("3");
+        mView.setText("4");
+        assertEquals(0, mView.getLength());
+
+        // setText() replaced the Editable
+        mLooper.idleFor(1000, TimeUnit.MILLISECONDS);
+        mView.getText().append("5");
+        assertEquals("5", mView.getText().toString());
+    }
+
+    @Test
+    public void lockFilterSurvivesSetFilters() {
+        mView.setFilters(new InputFilter[]{new InputFilter.AllCaps()});
+        mView.setFilters(mView.getFilters());
+        int lockFilters = 0;
+        for (InputFilter filter : mView.getFilters()) {
+            if (!(filter instanceof InputFilter.AllCaps)) {
+                lockFilters++;
+            }
+        }
+        assertEquals(1, lockFilters);
+
+        mView.setAttemptLimit(1, 1000, 1000);
+        mView.recordFailedAttempt();
+        mView.getText().append("1");
+
+        assertEquals(0, mView.getLength());
+    }
+
+    @Test
+    public void restoresRunningLockout() {
+        mView.setAttemptLimit(3, 10_000, 60_000);
+        FakeStore store = new FakeStore(
+                new PinAttemptStore.Snapshot(2, 1, System.currentTimeMillis() + 5000, 10_000));
+
+        mView.setAttemptStore(store);
+
+        assertTrue(mView.isLockedOut());
+        long remaining = mView.getLockoutRemainingMillis();
+        assertTrue("remaining: " + remaining, remaining > 4000 && remaining <= 5000);
+        assertEquals(2, mView.getFailedAttempts());
+
+        mLooper.idleFor(remaining, TimeUnit.MILLISECONDS);
+        assertFalse(mView.isLockedOut());
+        assertNotNull(store.saved);
+        assertEquals(0, store.saved.getLockedUntilMillis());
+        assertEquals(1, store.saved.getLockoutCount());
+    }
+
+    @Test
+    public void restoreDoesNotDependOnAttemptLimit() {
+        long lockedUntil = System.currentTimeMillis() + 5000;
+        FakeStore store = new FakeStore(new PinAttemptStore.Snapshot(0, 1, lockedUntil, 10_000));
+
+        // The store first, before any limits are known
+        mView.setAttemptStore(store);
+        mView.setAttemptLimit(3, 1000, 1000);
+
+        assertTrue(mView.isLockedOut());
+        long remaining = mView.getLockoutRemainingMillis();
+        assertTrue("remaining: " + remaining, remaining > 4000 && remaining <= 5000);
+
+        // The deadline written back is the restored one, not a shortened one
+        assertNotNull(store.saved);
+        assertEquals(10_000, store.saved.getLockoutMillis());
+        long saved = store.saved.getLockedUntilMillis();
+        assertTrue("saved: " + saved, Math.abs(saved - lockedUntil) < 1000);
+    }
+
+    @Test
+    public void restoresFarFutureDeadlineAsFullLockout() {
+        mView.setAttemptLimit(3, 10_000, 60_000);
+        // One earlier lockout, so the running one is the first: 10 s
+        FakeStore store = new FakeStore(
+                new PinAttemptStore.Snapshot(0, 1, System.currentTimeMillis() + 3_600_000, 10_000));
+
+        mView.setAttemptStore(store);
+
+        assertTrue(mView.isLockedOut());
+        assertEquals(10_000, mView.getLockoutRemainingMillis());
+        assertEquals(10_000, store.saved.getLockoutMillis());
+    }
+
+    @Test
+    public void restoresExpiredLockoutAsUnlocked() {
+        mView.setAttemptLimit(3, 10_000, 60_000);
+        FakeStore store = new FakeStore(
+                new PinAttemptStore.Snapshot(0, 1, System.currentTimeMillis() - 1000, 10_000));
+
+        mView.setAttemptStore(store);
+
+        assertFalse(mView.isLockedOut());
+        assertNotNull(store.saved);
+        assertEquals(0, store.saved.getLockedUntilMillis());
+        // The backoff is kept: the next lockout is the second one
+        mView.recordFailedAttempt();
+        mView.recordFailedAttempt();
+        mView.recordFailedAttempt();
+        assertEquals(20_000, mView.getLockoutRemainingMillis());
+    }
+
+    @Test
+    public void lockoutIsPersisted() {
+        mView.setAttemptLimit(1, 1000, 1000);
+        FakeStore store = new FakeStore(null);
+        mView.setAttemptStore(store);
+
+        long before = System.currentTimeMillis();
+        mView.recordFailedAttempt();
+
+        assertNotNull(store.saved);
+        assertEquals(1, store.saved.getLockoutCount());
+        assertEquals(1000, store.saved.getLockoutMillis());
+        assertTrue(store.saved.getLockedUntilMillis() >= before + 1000);
+    }
+
+    private static final class FakeStore implements PinAttemptStore {
+        private final Snapshot mInitial;
+        Snapshot saved;
+
+        FakeStore(@Nullable Snapshot initial) {
+            mInitial = initial;
+        }
+
+        @Nullable
+        @Override
+        public Snapshot load() {
+            return mInitial;
+        }
+
+        @Override
+        public void save(@NonNull Snapshot snapshot) {
+            saved = snapshot;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+import android.text.Editable;
+import android.util.AttributeSet;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Allocation and wall time regression suite for PinEntryView, run on the JVM.
+ * <p>
+ * Each test drives one user-facing operation and fails when the bytes per operation
+ * exceed its threshold; the allocation thresholds are what catch regressions such as
+ * per-frame {@code new Path()} in {@link PinViewDrawer}. Wall time thresholds vary with
+ * the build machine and are only enforced on request, see {@link PerfMeter}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class PinEntryViewPerformanceTest {
+
+    private static final int ITEM_COUNT = 6;
+    private static final long MILLIS = 1_000_000L;
+    private static final String[] DIGITS = {"0", "1", "2", "3", "4", "5"};
+
+    private ActivityController<Activity> mController;
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        mContext = new ContextThemeWrapper(mController.get(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+    }
+
+    @After
+    public void tearDown() {
+        mController.pause().stop().destroy();
+        PinViewBlinkClock.reset();
+    }
+
+    @Test
+    public void inflation() {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.itemCount, String.valueOf(ITEM_COUNT))
+                .addAttribute(R.attr.viewType, "rectangle")
+                .addAttribute(R.attr.itemRadius, "8dp")
+                .addAttribute(R.attr.lineWidth, "2dp")
+                .addAttribute(R.attr.lineColor, "#757575")
+                .addAttribute(R.attr.errorColor, "#F44336")
+                .addAttribute(R.attr.successColor, "#4CAF50")
+                .build();
+
+        PerfMeter.measure("inflation", 20, () -> new PinEntryView(mContext, attrs))
+                .assertWithin(512 * 1024, 50 * MILLIS);
+    }
+
+    @Test
+    public void drawSteadyState() {
+        PinEntryView view = createLaidOutView(PinEntryView.VIEW_TYPE_RECTANGLE);
+        view.setText("123");
+        Canvas canvas = newCanvas(view);
+
+        // Once paths, geometry and glyph bounds are cached, a frame must not allocate
+        PerfMeter.measure("draw", 200, () -> view.draw(canvas))
+                .assertWithin(64, 2 * MILLIS);
+    }
+
+    @Test
+    public void drawSteadyStateAllViewTypes() {
+        int[] viewTypes = {
+                PinEntryView.VIEW_TYPE_RECTANGLE,
+                PinEntryView.VIEW_TYPE_LINE,
+                PinEntryView.VIEW_TYPE_CIRCLE,
+                PinEntryView.VIEW_TYPE_NONE
+        };
+        String[] names = {"drawRectangle", "drawLine", "drawCircle", "drawNone"};
+        for (int t = 0; t < viewTypes.length; t++) {
+            PinEntryView view = createLaidOutView(viewTypes[t]);
+            view.setText("1234");
+            Canvas canvas = newCanvas(view);
+
+            PerfMeter.measure(names[t], 200, () -> view.draw(canvas))
+                    .assertWithin(64, 2 * MILLIS);
+        }
+    }
+
+    @Test
+    public void typeFullPin() {
+        PinEntryView view = createLaidOutView(PinEntryView.VIEW_TYPE_RECTANGLE);
+        view.setAnimationEnabled(false);
+        Editable text = view.getText();
+
+        PerfMeter.measure("typeFullPin", 20, () -> {
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                text.append((char) ('0' + i));
+            }
+            text.clear();
+        }).assertWithin(256 * 1024, 20 * MILLIS);
+
+        assertEquals(0, view.getLength());
+    }
+
+    @Test
+    public void batchCommitFullPin() {
+        PinEntryView view = createLaidOutView(PinEntryView.VIEW_TYPE_RECTANGLE);
+        view.setAnimationEnabled(false);
+        InputConnection ic = view.onCreateInputConnection(new EditorInfo());
+        Editable text = view.getText();
+
+        // The whole code arrives in one IME batch, one character per commit; coalescing
+        // itself is covered by PinEntryViewBatchInputTest
+        PerfMeter.measure("batchCommitFullPin", 20, () -> {
+            ic.beginBatchEdit();
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                ic.commitText(DIGITS[i], 1);
+            }
+            ic.endBatchEdit();
+            text.clear();
+        }).assertWithin(256 * 1024, 20 * MILLIS);
+
+        assertEquals(0, view.getLength());
+    }
+
+    @Test
+    public void errorAndSuccessTransitions() {
+        PinEntryView view = createLaidOutView(PinEntryView.VIEW_TYPE_RECTANGLE);
+        view.setErrorShakeEnabled(false);
+        view.setSuccessAnimationEnabled(false);
+        view.setText("123456");
+
+        PerfMeter.measure("stateTransitions", 100, () -> {
+            view.setState(PinViewState.Type.ERROR);
+            view.setState(PinViewState.Type.SUCCESS);
+            view.setState(PinViewState.Type.NORMAL);
+        }).assertWithin(1024, 2 * MILLIS);
+
+        assertEquals(PinViewState.Type.NORMAL, view.getState());
+    }
+
+    @Test
+    public void blinkTicks() {
+        int[] ticks = new int[1];
+        PinEntryView view = new PinEntryView(mContext) {
+            @Override
+            void onBlinkTick(boolean showCursor) {
+                ticks[0]++;
+                super.onBlinkTick(showCursor);
+            }
+        };
+        view.setItemCount(ITEM_COUNT);
+        mController.get().setContentView(view);
+        ShadowLooper looper = shadowOf(Looper.getMainLooper());
+        looper.idle();
+        assertTrue(view.requestFocus());
+        looper.idle();
+
+        // Ticks come from the clock's own Choreographer callback as the Looper clock
+        // advances; the bytes include Robolectric's message and traversal bookkeeping
+        PerfMeter.measure("blinkTick", 50,
+                () -> looper.idleFor(PinViewBlinkClock.BLINK_TIMEOUT, TimeUnit.MILLISECONDS))
+                .assertWithin(16 * 1024, 2 * MILLIS);
+
+        // A single callback stays in flight, so there is one tick per period
+        ticks[0] = 0;
+        looper.idleFor(20 * PinViewBlinkClock.BLINK_TIMEOUT, TimeUnit.MILLISECONDS);
+        assertTrue("ticks: " + ticks[0], ticks[0] >= 19 && ticks[0] <= 20);
+        assertTrue(view.isFocused());
+    }
+
+    private PinEntryView createLaidOutView(int viewType) {
+        PinEntryView view = new PinEntryView(mContext);
+        view.setItemCount(ITEM_COUNT);
+        view.setViewType(viewType);
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        view.measure(spec, spec);
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        return view;
+    }
+
+    private static Canvas newCanvas(View view) {
+        Bitmap bitmap = Bitmap.createBitmap(
+                Math.max(view.getWidth(), 1), Math.max(view.getHeight(), 1), Bitmap.Config.ARGB_8888);
+        return new Canvas(bitmap);
+    }
+}
@@ -0,0 +1,232 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.CancellationSignal;
+import android.os.Looper;
+import android.text.Editable;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies running a {@link PinVerifier} off the main thread: delivery, cancellation on
+ * edit and detach, dropping of stale results, and verifier errors.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PinEntryViewVerificationTest {
+
+    private static final int ITEM_COUNT = 4;
+
+    private ActivityController<Activity> mController;
+    private Context mContext;
+    private PinEntryView mView;
+    private RecordingListener mListener;
+
+    // Runs submitted tasks only when the test says so
+    private final List<Runnable> mQueued = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        mContext = new ContextThemeWrapper(mController.get(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+        mView = new PinEntryView(mContext);
+        mView.setItemCount(ITEM_COUNT);
+        mView.setAnimationEnabled(false);
+        mView.setErrorShakeEnabled(false);
+        mView.setSuccessAnimationEnabled(false);
+        mListener = new RecordingListener();
+        mView.setOnPinVerifiedListener(mListener);
+    }
+
+    @After
+    public void tearDown() {
+        mController.pause().stop().destroy();
+        PinViewBlinkClock.reset();
+    }
+
+    @Test
+    public void resultIsDeliveredOnMainThread() throws Exception {
+        Thread[] verifierThread = new Thread[1];
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        mView.setPinVerifier((pin, signal) -> {
+            verifierThread[0] = Thread.currentThread();
+            return "1234".equals(new String(pin));
+        }, executor);
+
+        type("1234");
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        // Nothing is delivered until the main Looper runs
+        assertEquals(0, mListener.results.size());
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertNotSame(Looper.getMainLooper().getThread(), verifierThread[0]);
+        assertEquals(1, mListener.results.size());
+        assertTrue(mListener.results.get(0));
+        assertSame(Looper.getMainLooper(), mListener.looper);
+        assertEquals(PinViewState.Type.SUCCESS, mView.getState());
+        assertFalse(mView.isVerifying());
+    }
+
+    @Test
+    public void wrongPinCountsAsFailedAttempt() {
+        mView.setPinVerifier((pin, signal) -> false, mQueued::add);
+
+        type("1234");
+        runQueued();
+
+        assertEquals(1, mListener.results.size());
+        assertFalse(mListener.results.get(0));
+        assertEquals(PinViewState.Type.ERROR, mView.getState());
+        assertEquals(1, mView.getFailedAttempts());
+    }
+
+    @Test
+    public void verifierErrorIsNotAnAttempt() {
+        IllegalStateException failure = new IllegalStateException("KeyStore unavailable");
+        mView.setPinVerifier((pin, signal) -> {
+            throw failure;
+        }, mQueued::add);
+
+        type("1234");
+        runQueued();
+
+        assertEquals(0, mListener.results.size());
+        assertSame(failure, mListener.error);
+        assertEquals(0, mView.getFailedAttempts());
+        assertEquals(PinViewState.Type.NORMAL, mView.getState());
+        assertEquals("1234", mView.getText().toString());
+    }
+
+    @Test
+    public void editCancelsVerification() {
+        CancellationSignal[] seen = new CancellationSignal[1];
+        mView.setPinVerifier((pin, signal) -> {
+            seen[0] = signal;
+            return true;
+        }, mQueued::add);
+
+        type("1234");
+        assertTrue(mView.isVerifying());
+        Editable text = mView.getText();
+        text.delete(text.length() - 1, text.length());
+        assertFalse(mView.isVerifying());
+        runQueued();
+
+        // The canceled run never reaches the verifier and reports nothing
+        assertNull(seen[0]);
+        assertEquals(0, mListener.results.size());
+        assertEquals(PinViewState.Type.NORMAL, mView.getState());
+    }
+
+    @Test
+    public void detachCancelsVerification() {
+        mView.setPinVerifier((pin, signal) -> true, mQueued::add);
+        mController.get().setContentView(mView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        type("1234");
+        assertTrue(mView.isVerifying());
+        mController.get().setContentView(new View(mContext));
+        assertFalse(mView.isVerifying());
+        runQueued();
+
+        assertEquals(0, mListener.results.size());
+        assertEquals(0, mView.getFailedAttempts());
+    }
+
+    @Test
+    public void staleResultIsDroppedByGeneration() {
+        // This verifier ignores its CancellationSignal entirely
+        mView.setPinVerifier((pin, signal) -> "1234".equals(new String(pin)), mQueued::add);
+
+        type("1234");
+        // The first run finishes and posts its result before the PIN is edited
+        mQueued.remove(0).run();
+        Editable text = mView.getText();
+        text.delete(text.length() - 1, text.length());
+        text.append('5');
+        runQueued();
+
+        // Only the current PIN's result arrives
+        assertEquals(1, mListener.results.size());
+        assertFalse(mListener.results.get(0));
+        assertEquals(PinViewState.Type.ERROR, mView.getState());
+    }
+
+    @Test
+    public void clearingVerifierNeedsNoExecutor() {
+        mView.setPinVerifier((pin, signal) -> true, mQueued::add);
+        type("123");
+
+        mView.setPinVerifier(null, null);
+        mView.getText().append('4');
+
+        assertFalse(mView.isVerifying());
+        assertEquals(0, mQueued.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifierWithoutExecutorIsRejected() {
+        mView.setPinVerifier((pin, signal) -> true, null);
+    }
+
+    private void type(String pin) {
+        Editable text = mView.getText();
+        for (int i = 0; i < pin.length(); i++) {
+            text.append(pin.charAt(i));
+        }
+    }
+
+    private void runQueued() {
+        while (!mQueued.isEmpty()) {
+            mQueued.remove(0).run();
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static final class RecordingListener implements PinEntryView.OnPinVerifiedListener {
+        final List<Boolean> results = new ArrayList<>();
+        RuntimeException error;
+        Looper looper;
+
+        @Override
+        public void onPinVerified(boolean verified) {
+            results.add(verified);
+            looper = Looper.myLooper();
+        }
+
+        @Override
+        public void onPinVerificationFailed(@NonNull RuntimeException error) {
+            this.error = error;
+            looper = Looper.myLooper();
+        }
+    }
+}
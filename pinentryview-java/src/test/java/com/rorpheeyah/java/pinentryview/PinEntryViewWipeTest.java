@@ -0,0 +1,185 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.ContextThemeWrapper;
+import android.view.inputmethod.InputMethodManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowInputMethodManager;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that {@link PinEntryView#wipe()} zeroes every copy of the PIN the view holds
+ * and that the overwrite is not mistaken for a completed PIN.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PinEntryViewWipeTest {
+
+    private static final int ITEM_COUNT = 6;
+    private static final String PIN = "135790";
+
+    private ActivityController<Activity> mController;
+    private Context mContext;
+    private PinEntryView mView;
+
+    @Before
+    public void setUp() {
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        mContext = new ContextThemeWrapper(mController.get(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+        mView = new PinEntryView(mContext);
+        mView.setItemCount(ITEM_COUNT);
+        mView.setAnimationEnabled(false);
+    }
+
+    @After
+    public void tearDown() {
+        mController.pause().stop().destroy();
+        PinViewBlinkClock.reset();
+    }
+
+    @Test
+    public void wipeZeroesEditableStorage() {
+        type(PIN);
+
+        mView.wipe();
+
+        // Cleared text stays in the SpannableStringBuilder's gap buffer unless overwritten
+        assertEquals(0, mView.getLength());
+        assertNoPinDigits(ReflectionHelpers.getField(mView.getText(), "mText"));
+    }
+
+    @Test
+    public void wipeZeroesTransformedText() {
+        type(PIN);
+        PinViewTextBuffer transformed = (PinViewTextBuffer) mView.getTransformedText();
+        assertNotNull(transformed);
+        char[] storage = ReflectionHelpers.getField(transformed, "mChars");
+
+        mView.wipe();
+
+        assertEquals(0, transformed.length());
+        assertNoPinDigits(storage);
+    }
+
+    @Test
+    public void wipeZeroesSecureListenerBuffer() {
+        CharBuffer[] received = new CharBuffer[1];
+        mView.setOnSecurePinEnteredListener(pin -> received[0] = pin);
+        type(PIN);
+        assertNotNull(received[0]);
+        assertEquals(PIN, received[0].toString());
+
+        mView.wipe();
+
+        assertNoPinDigits(received[0].array());
+    }
+
+    @Test
+    public void wipeDoesNotReportCompletion() {
+        int[] completions = new int[2];
+        mView.setOnPinEnteredListener(pin -> completions[0]++);
+        mView.setOnSecurePinEnteredListener(pin -> completions[1]++);
+        type(PIN);
+        assertEquals(1, completions[0]);
+        assertEquals(1, completions[1]);
+
+        mView.wipe();
+
+        assertEquals(1, completions[0]);
+        assertEquals(1, completions[1]);
+    }
+
+    @Test
+    public void textWatchersCanSkipTheOverwrite() {
+        boolean[] sawWipe = new boolean[1];
+        int[] fullLengthChanges = new int[1];
+        mView.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                if (mView.isWiping()) {
+                    sawWipe[0] = true;
+                } else if (s.length() == ITEM_COUNT) {
+                    fullLengthChanges[0]++;
+                }
+            }
+        });
+        type(PIN);
+
+        mView.wipe();
+
+        assertTrue(sawWipe[0]);
+        assertEquals(1, fullLengthChanges[0]);
+        assertFalse(mView.isWiping());
+    }
+
+    @Test
+    public void wipeDoesNotHideKeyboard() {
+        mView.setSmartKeyboardBehavior(true);
+        mController.get().setContentView(mView);
+        ShadowLooper looper = shadowOf(Looper.getMainLooper());
+        looper.idle();
+        InputMethodManager imm = mContext.getSystemService(InputMethodManager.class);
+        ShadowInputMethodManager shadowImm = shadowOf(imm);
+
+        // A completed PIN hides the keyboard
+        assertTrue(mView.requestFocus());
+        imm.showSoftInput(mView, 0);
+        type(PIN);
+        looper.idleFor(1, TimeUnit.SECONDS);
+        assertFalse(shadowImm.isSoftInputVisible());
+
+        // Wiping it does not, although the overwrite is full length
+        assertTrue(mView.requestFocus());
+        imm.showSoftInput(mView, 0);
+        mView.wipe();
+        looper.idleFor(1, TimeUnit.SECONDS);
+
+        assertTrue(shadowImm.isSoftInputVisible());
+        assertTrue(mView.isFocused());
+    }
+
+    private void type(String pin) {
+        Editable text = mView.getText();
+        for (int i = 0; i < pin.length(); i++) {
+            text.append(pin.charAt(i));
+        }
+        assertEquals(pin, text.toString());
+    }
+
+    private static void assertNoPinDigits(char[] storage) {
+        for (char c : storage) {
+            assertTrue("PIN digit left in storage: " + c, PIN.indexOf(c) < 0);
+        }
+    }
+}
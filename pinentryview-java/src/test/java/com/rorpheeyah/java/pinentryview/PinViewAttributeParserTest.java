@@ -0,0 +1,169 @@
+package com.rorpheeyah.java.pinentryview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.util.AttributeSet;
+import android.view.ContextThemeWrapper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Verifies when the per-theme attribute cache of {@link PinViewAttributeParser} is hit
+ * and when it must resolve again.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class PinViewAttributeParserTest {
+
+    private ActivityController<Activity> mController;
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        PinViewAttributeParser.clearCache();
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        mContext = new ContextThemeWrapper(mController.get(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+    }
+
+    @After
+    public void tearDown() {
+        mController.pause().stop().destroy();
+        PinViewAttributeParser.clearCache();
+    }
+
+    @Test
+    public void sameAttributesHitCache() {
+        PinViewResolvedAttributes first = resolve(mContext, buildAttrs("4", "#757575"));
+
+        // A separately built but equal AttributeSet, as for a sibling view
+        assertSame(first, resolve(mContext, buildAttrs("4", "#757575")));
+        assertEquals(4, first.itemCount);
+    }
+
+    @Test
+    public void differentAttributeValuesMiss() {
+        PinViewResolvedAttributes first = resolve(mContext, buildAttrs("4", "#757575"));
+
+        PinViewResolvedAttributes otherCount = resolve(mContext, buildAttrs("6", "#757575"));
+        PinViewResolvedAttributes otherColor = resolve(mContext, buildAttrs("4", "#F44336"));
+
+        assertNotSame(first, otherCount);
+        assertNotSame(first, otherColor);
+        assertEquals(6, otherCount.itemCount);
+        assertSame(otherCount, resolve(mContext, buildAttrs("6", "#757575")));
+    }
+
+    @Test
+    public void differentThemeMisses() {
+        PinViewResolvedAttributes first = resolve(mContext, buildAttrs("4", "#757575"));
+        Context dark = new ContextThemeWrapper(mController.get(),
+                androidx.appcompat.R.style.Theme_AppCompat);
+
+        assertNotSame(first, resolve(dark, buildAttrs("4", "#757575")));
+    }
+
+    @Test
+    public void orientationChangeOnSameThemeMisses() {
+        PinViewResolvedAttributes portrait = resolve(mContext, buildAttrs("4", "#757575"));
+
+        // Same Theme object, as in an activity that handles configChanges itself
+        updateConfiguration(config -> {
+            config.orientation = Configuration.ORIENTATION_LANDSCAPE;
+            int width = config.screenWidthDp;
+            config.screenWidthDp = config.screenHeightDp;
+            config.screenHeightDp = width;
+        });
+        PinViewResolvedAttributes landscape = resolve(mContext, buildAttrs("4", "#757575"));
+
+        assertNotSame(portrait, landscape);
+        assertSame(landscape, resolve(mContext, buildAttrs("4", "#757575")));
+    }
+
+    @Test
+    public void screenSizeChangeOnSameThemeMisses() {
+        PinViewResolvedAttributes phone = resolve(mContext, buildAttrs("4", "#757575"));
+
+        updateConfiguration(config -> config.smallestScreenWidthDp = 600);
+
+        assertNotSame(phone, resolve(mContext, buildAttrs("4", "#757575")));
+    }
+
+    @Test
+    public void layoutDirectionChangeOnSameThemeMisses() {
+        PinViewResolvedAttributes ltr = resolve(mContext, buildAttrs("4", "#757575"));
+
+        updateConfiguration(config -> config.setLayoutDirection(new Locale("ar")));
+
+        assertNotSame(ltr, resolve(mContext, buildAttrs("4", "#757575")));
+    }
+
+    @Test
+    public void localeChangeOnSameThemeMisses() {
+        updateConfiguration(config -> config.setLocale(Locale.ENGLISH));
+        PinViewResolvedAttributes english = resolve(mContext, buildAttrs("4", "#757575"));
+
+        // Left to right as well, only a values-fr qualifier tells them apart
+        updateConfiguration(config -> config.setLocale(Locale.FRENCH));
+
+        assertNotSame(english, resolve(mContext, buildAttrs("4", "#757575")));
+    }
+
+    @Test
+    public void networkChangeOnSameThemeMisses() {
+        PinViewResolvedAttributes first = resolve(mContext, buildAttrs("4", "#757575"));
+
+        updateConfiguration(config -> config.mcc = 310);
+
+        assertNotSame(first, resolve(mContext, buildAttrs("4", "#757575")));
+    }
+
+    @Test
+    public void clearCacheDropsEntries() {
+        PinViewResolvedAttributes first = resolve(mContext, buildAttrs("4", "#757575"));
+
+        PinViewAttributeParser.clearCache();
+
+        assertNotSame(first, resolve(mContext, buildAttrs("4", "#757575")));
+    }
+
+    private PinViewResolvedAttributes resolve(Context context, AttributeSet attrs) {
+        return new PinViewAttributeParser(context).resolve(new PinEntryView(context), attrs, 0);
+    }
+
+    private static AttributeSet buildAttrs(String itemCount, String lineColor) {
+        return Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.itemCount, itemCount)
+                .addAttribute(R.attr.viewType, "rectangle")
+                .addAttribute(R.attr.itemRadius, "8dp")
+                .addAttribute(R.attr.lineColor, lineColor)
+                .build();
+    }
+
+    private interface ConfigEditor {
+        void edit(Configuration config);
+    }
+
+    @SuppressWarnings("deprecation")
+    private void updateConfiguration(ConfigEditor editor) {
+        Resources resources = mContext.getResources();
+        Configuration config = new Configuration(resources.getConfiguration());
+        editor.edit(config);
+        resources.updateConfiguration(config, resources.getDisplayMetrics());
+    }
+}
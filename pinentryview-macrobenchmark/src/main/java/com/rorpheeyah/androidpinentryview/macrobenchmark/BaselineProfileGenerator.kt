@@ -0,0 +1,36 @@
+package com.rorpheeyah.androidpinentryview.macrobenchmark
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Generates the baseline profile for the sample app and, through the filter in
+ * pinentryview-java/build.gradle, for the library AAR.
+ *
+ * The journey covers the PinEntryView init path (attribute parsing, animator and
+ * drawer setup), typing, the success state and the error shake.
+ *
+ * Run with `./gradlew :pinentryview-java:generateBaselineProfile`.
+ */
+@RunWith(AndroidJUnit4::class)
+class BaselineProfileGenerator {
+
+    @get:Rule
+    val baselineProfileRule = BaselineProfileRule()
+
+    @Test
+    fun generate() = baselineProfileRule.collect(
+        packageName = TARGET_PACKAGE,
+        includeInStartupProfile = true
+    ) {
+        pressHome()
+        startActivityAndWait()
+        waitForPinView()
+
+        typePin(PIN_VIEW_BASIC, "1234")
+        typePin(PIN_VIEW_ANIMATED, "0000")
+    }
+}
@@ -0,0 +1,53 @@
+package com.rorpheeyah.androidpinentryview.macrobenchmark
+
+import androidx.benchmark.macro.BaselineProfileMode
+import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.FrameTimingMetric
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.benchmark.macro.StartupMode
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures frame timing while typing into PinEntryView and during the error shake
+ * and success animations.
+ */
+@RunWith(AndroidJUnit4::class)
+class PinInteractionBenchmark {
+
+    @get:Rule
+    val benchmarkRule = MacrobenchmarkRule()
+
+    @Test
+    fun typing() = measureFrames {
+        // One digit short of the four items: input only, no state change
+        typePin(PIN_VIEW_ANIMATED, "123")
+    }
+
+    @Test
+    fun errorShake() = measureFrames {
+        typePin(PIN_VIEW_ANIMATED, "0000")
+    }
+
+    @Test
+    fun successAnimation() = measureFrames {
+        typePin(PIN_VIEW_ANIMATED, "5678")
+    }
+
+    private fun measureFrames(block: MacrobenchmarkScope.() -> Unit) =
+        benchmarkRule.measureRepeated(
+            packageName = TARGET_PACKAGE,
+            metrics = listOf(FrameTimingMetric()),
+            compilationMode = CompilationMode.Partial(baselineProfileMode = BaselineProfileMode.Require),
+            startupMode = StartupMode.WARM,
+            iterations = 10,
+            setupBlock = {
+                startActivityAndWait()
+                waitForPinView(PIN_VIEW_ANIMATED)
+            },
+            measureBlock = block
+        )
+}
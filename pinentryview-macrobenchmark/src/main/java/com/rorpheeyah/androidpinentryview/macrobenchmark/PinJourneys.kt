@@ -0,0 +1,42 @@
+package com.rorpheeyah.androidpinentryview.macrobenchmark
+
+import android.view.KeyEvent
+import androidx.benchmark.macro.MacrobenchmarkScope
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.Until
+
+/**
+ * Package name of the sample app under test.
+ */
+const val TARGET_PACKAGE = "com.rorpheeyah.androidpinentryview"
+
+/**
+ * Basic four item rectangle PIN view; "1234" succeeds, anything else fails.
+ */
+const val PIN_VIEW_BASIC = "pinEntryView"
+
+/**
+ * Four item line PIN view with shake and success animations; "5678" succeeds.
+ */
+const val PIN_VIEW_ANIMATED = "pinEntryView1"
+
+private const val TIMEOUT_MS = 5_000L
+
+/**
+ * Waits until the given PIN view has been laid out and drawn.
+ */
+fun MacrobenchmarkScope.waitForPinView(resId: String = PIN_VIEW_BASIC) {
+    device.wait(Until.hasObject(By.res(TARGET_PACKAGE, resId)), TIMEOUT_MS)
+}
+
+/**
+ * Focuses the given PIN view and types the PIN one key event at a time.
+ */
+fun MacrobenchmarkScope.typePin(resId: String, pin: String) {
+    waitForPinView(resId)
+    device.findObject(By.res(TARGET_PACKAGE, resId)).click()
+    for (digit in pin) {
+        device.pressKeyCode(KeyEvent.KEYCODE_0 + digit.digitToInt())
+    }
+    device.waitForIdle()
+}
@@ -22,3 +22,5 @@ dependencyResolutionManagement {
 rootProject.name = "AndroidPinEntryView"
 include(":app")
 include(":pinentryview-java")
+include(":pinentryview-benchmark")
+include(":pinentryview-macrobenchmark")